@@ -0,0 +1,25 @@
+#!/usr/bin/env bash
+# Unpacks a Spring Boot jar into app.jar plus lib/, with app.jar's manifest listing the libraries in the order
+# Boot would load them. Class data sharing only archives classes loaded from plain jars on the class path, not
+# from the jars nested inside a Boot jar.
+#
+# Usage: scripts/cds-layout.sh target/todoapp-0.0.1-SNAPSHOT.jar /app/layout
+set -euo pipefail
+
+JAR=$(cd "$(dirname "$1")" && pwd)/$(basename "$1")
+OUT=$2
+WORK=$(mktemp -d)
+trap 'rm -rf "$WORK"' EXIT
+
+(cd "$WORK" && jar -xf "$JAR")
+mkdir -p "$OUT/lib"
+cp "$WORK"/BOOT-INF/lib/*.jar "$OUT/lib/"
+
+{
+    printf 'Main-Class: %s\n' "$(sed -n 's/^Start-Class: //p' "$WORK/META-INF/MANIFEST.MF" | tr -d '\r')"
+    printf 'Class-Path: \n'
+    # One continuation line per jar; the second space separates it from the previous entry.
+    sed -n 's|^- "BOOT-INF/lib/\(.*\)"$|  lib/\1|p' "$WORK/BOOT-INF/classpath.idx"
+} > "$WORK/MANIFEST.MF"
+
+jar --create --file "$OUT/app.jar" --manifest "$WORK/MANIFEST.MF" -C "$WORK/BOOT-INF/classes" .
@@ -0,0 +1,132 @@
+package com.example.todoapp.benchmark;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Status flips per second from concurrent writers, each in its own transaction, with the change stamping
+ * {@code TodoChangeLog} adds before commit: {@code none} leaves it out, {@code row} takes the value from a single
+ * counter row that stays locked until commit, and {@code xid} uses the transaction id as Postgres now does. With
+ * {@code row} the writers queue on the lock, so throughput stops at one commit per lock hold however many of them
+ * there are; that ceiling is what the comparison shows. Every thread has its own connection, so the pool plays no
+ * part. Needs PostgreSQL; the TEST_DB_* variables select the database, with the same defaults as the integration
+ * tests.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(16)
+@Fork(1)
+public class ChangeSequenceBenchmark {
+
+    private static final String TABLE = "change_sequence_benchmark";
+    private static final String COUNTER = "change_sequence_benchmark_counter";
+    private static final int ROWS = 10_000;
+    private static final String[] STATUSES = {"PENDING", "IN_PROGRESS", "DONE"};
+
+    @Param({"none", "row", "xid"})
+    public String stamping;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        try (Connection connection = connect(); Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS " + TABLE);
+            statement.execute("DROP TABLE IF EXISTS " + COUNTER);
+            statement.execute("CREATE TABLE " + TABLE
+                    + " (id INTEGER PRIMARY KEY, status VARCHAR(20) NOT NULL, change_seq BIGINT NOT NULL)");
+            statement.execute("INSERT INTO " + TABLE
+                    + " SELECT n, 'PENDING', 0 FROM generate_series(1, " + ROWS + ") n");
+            statement.execute("CREATE TABLE " + COUNTER + " (id INTEGER PRIMARY KEY, last_value BIGINT NOT NULL)");
+            statement.execute("INSERT INTO " + COUNTER + " VALUES (1, 0)");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        try (Connection connection = connect(); Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE " + TABLE);
+            statement.execute("DROP TABLE " + COUNTER);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Writer {
+
+        Connection connection;
+        PreparedStatement flip;
+        PreparedStatement nextValue;
+        PreparedStatement stamp;
+
+        @Setup(Level.Trial)
+        public void setUp(ChangeSequenceBenchmark benchmark) throws SQLException {
+            connection = connect();
+            connection.setAutoCommit(false);
+            flip = connection.prepareStatement("UPDATE " + TABLE + " SET status = ? WHERE id = ?");
+            nextValue = connection.prepareStatement(switch (benchmark.stamping) {
+                case "row" -> "UPDATE " + COUNTER
+                        + " SET last_value = last_value + 1 WHERE id = 1 RETURNING last_value";
+                default -> "SELECT pg_current_xact_id()::text::bigint";
+            });
+            stamp = connection.prepareStatement("UPDATE " + TABLE + " SET change_seq = ? WHERE id = ?");
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws SQLException {
+            connection.close();
+        }
+    }
+
+    @Benchmark
+    public void flipStatus(Writer writer) throws SQLException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int id = random.nextInt(ROWS) + 1;
+        writer.flip.setString(1, STATUSES[random.nextInt(STATUSES.length)]);
+        writer.flip.setInt(2, id);
+        writer.flip.executeUpdate();
+        if (!"none".equals(stamping)) {
+            long changeSeq;
+            try (ResultSet result = writer.nextValue.executeQuery()) {
+                result.next();
+                changeSeq = result.getLong(1);
+            }
+            writer.stamp.setLong(1, changeSeq);
+            writer.stamp.setInt(2, id);
+            writer.stamp.executeUpdate();
+        }
+        writer.connection.commit();
+    }
+
+    private static Connection connect() throws SQLException {
+        return DriverManager.getConnection(
+                "jdbc:postgresql://" + env("TEST_DB_HOST", "localhost") + ":" + env("TEST_DB_PORT", "55432")
+                        + "/" + env("TEST_DB_NAME", "todoapp_int"),
+                env("TEST_DB_USER", "todo"),
+                env("TEST_DB_PASSWORD", "todo"));
+    }
+
+    private static String env(String name, String fallback) {
+        return System.getenv().getOrDefault(name, fallback);
+    }
+}
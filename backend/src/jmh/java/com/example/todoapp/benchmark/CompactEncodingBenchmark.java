@@ -0,0 +1,82 @@
+package com.example.todoapp.benchmark;
+
+import com.example.todoapp.api.dto.TodoResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * CPU cost of each wire encoding for a list response. Setup prints the encoded size of each one, which is the
+ * other half of the trade-off.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CompactEncodingBenchmark {
+
+    @Param({"100", "10000"})
+    public int size;
+
+    private ObjectWriter jsonWriter;
+    private ObjectWriter smileWriter;
+    private List<TodoResponse> todos;
+
+    @Setup
+    public void setUp() throws IOException {
+        jsonWriter = listWriter(Fixtures.objectMapper());
+        smileWriter = listWriter(Fixtures.smileMapper());
+        todos = Fixtures.responses(size);
+        System.out.printf("%n%d todos: json=%d B, json+gzip=%d B, smile=%d B, smile+gzip=%d B%n",
+                size, json().length, jsonGzip().length, smile().length, smileGzip().length);
+    }
+
+    @Benchmark
+    public byte[] json() throws IOException {
+        return jsonWriter.writeValueAsBytes(todos);
+    }
+
+    @Benchmark
+    public byte[] jsonGzip() throws IOException {
+        return gzip(jsonWriter);
+    }
+
+    @Benchmark
+    public byte[] smile() throws IOException {
+        return smileWriter.writeValueAsBytes(todos);
+    }
+
+    @Benchmark
+    public byte[] smileGzip() throws IOException {
+        return gzip(smileWriter);
+    }
+
+    private byte[] gzip(ObjectWriter writer) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+            writer.writeValue(out, todos);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static ObjectWriter listWriter(ObjectMapper mapper) {
+        return mapper.writerFor(mapper.getTypeFactory().constructCollectionType(List.class, TodoResponse.class));
+    }
+}
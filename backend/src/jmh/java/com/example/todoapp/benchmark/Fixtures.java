@@ -0,0 +1,63 @@
+package com.example.todoapp.benchmark;
+
+import com.example.todoapp.api.dto.TodoRequest;
+import com.example.todoapp.api.dto.TodoResponse;
+import com.example.todoapp.model.Todo;
+import com.example.todoapp.model.TodoStatus;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+final class Fixtures {
+
+    private static final TodoStatus[] STATUSES = TodoStatus.values();
+
+    private Fixtures() {
+    }
+
+    /** Same modules and date handling as the mapper Spring Boot configures for the API. */
+    static ObjectMapper objectMapper() {
+        return Jackson2ObjectMapperBuilder.json().build();
+    }
+
+    /** Same factory settings as the Smile converter in {@code WebConfig}. */
+    static ObjectMapper smileMapper() {
+        return Jackson2ObjectMapperBuilder.json()
+                .factory(SmileFactory.builder().enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES).build())
+                .build();
+    }
+
+    static Todo todo(int i) {
+        Todo todo = new Todo();
+        todo.setTitle("Benchmark task " + i);
+        todo.setDescription("Description for benchmark task " + i + " with a realistic amount of text in it.");
+        todo.setStatus(STATUSES[i % STATUSES.length]);
+        todo.setDueDate(LocalDate.of(2025, 1, 1).plusDays(i % 365));
+        todo.onCreate();
+        return todo;
+    }
+
+    static List<TodoResponse> responses(int size) {
+        List<TodoResponse> responses = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            TodoResponse response = TodoResponse.from(todo(i));
+            response.setId(UUID.randomUUID());
+            responses.add(response);
+        }
+        return responses;
+    }
+
+    static TodoRequest request(int i) {
+        TodoRequest request = new TodoRequest();
+        request.setTitle("Benchmark task " + i);
+        request.setDescription("Created by the service benchmark");
+        request.setStatus(STATUSES[i % STATUSES.length]);
+        request.setDueDate(LocalDate.of(2025, 1, 1).plusDays(i % 365));
+        return request;
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.todoapp.benchmark;
+
+import com.example.todoapp.api.dto.TodoResponse;
+import com.example.todoapp.model.Todo;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MappingBenchmark {
+
+    private Todo todo;
+
+    @Setup
+    public void setUp() {
+        todo = Fixtures.todo(42);
+    }
+
+    @Benchmark
+    public TodoResponse todoResponseFrom() {
+        return TodoResponse.from(todo);
+    }
+}
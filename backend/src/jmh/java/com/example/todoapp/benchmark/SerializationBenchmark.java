@@ -0,0 +1,74 @@
+package com.example.todoapp.benchmark;
+
+import com.example.todoapp.api.dto.TodoRequest;
+import com.example.todoapp.api.dto.TodoResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+
+    private ObjectReader requestReader;
+    private Validator validator;
+    private byte[] requestJson;
+
+    @State(Scope.Benchmark)
+    public static class Payload {
+
+        @Param({"100", "10000"})
+        public int size;
+
+        ObjectWriter listWriter;
+        List<TodoResponse> todos;
+
+        @Setup
+        public void setUp() {
+            ObjectMapper mapper = Fixtures.objectMapper();
+            listWriter = mapper.writerFor(
+                    mapper.getTypeFactory().constructCollectionType(List.class, TodoResponse.class));
+            todos = Fixtures.responses(size);
+        }
+    }
+
+    @Setup
+    public void setUp() throws Exception {
+        ObjectMapper mapper = Fixtures.objectMapper();
+        requestReader = mapper.readerFor(TodoRequest.class);
+        validator = Validation.buildDefaultValidatorFactory().getValidator();
+        requestJson = mapper.writeValueAsBytes(Fixtures.request(1));
+    }
+
+    @Benchmark
+    public byte[] serializeList(Payload payload) throws Exception {
+        return payload.listWriter.writeValueAsBytes(payload.todos);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<TodoRequest>> deserializeAndValidateRequest() throws Exception {
+        TodoRequest request = requestReader.readValue(requestJson);
+        return validator.validate(request);
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.todoapp.benchmark;
+
+import com.example.todoapp.TodoApplication;
+import com.example.todoapp.api.dto.TodoResponse;
+import com.example.todoapp.model.TodoStatus;
+import com.example.todoapp.service.TodoService;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Runs {@link TodoService} against in-memory H2 in PostgreSQL mode, configured by the test application.yml.
+ * The cache is disabled so list timings include the query and entity mapping.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TodoServiceBenchmark {
+
+    @Param({"1000"})
+    public int rows;
+
+    private final AtomicInteger sequence = new AtomicInteger();
+    private ConfigurableApplicationContext context;
+    private TodoService service;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(TodoApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.datasource.url=jdbc:h2:mem:bench;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+                        "todo.cache.enabled=false",
+                        "logging.level.root=WARN")
+                .run();
+        service = context.getBean(TodoService.class);
+        for (int i = 0; i < rows; i++) {
+            service.create(Fixtures.request(sequence.incrementAndGet()));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<TodoResponse> listByStatus() {
+        return service.list(TodoStatus.IN_PROGRESS, null, null, false);
+    }
+
+    @Benchmark
+    public TodoResponse create() {
+        return service.create(Fixtures.request(sequence.incrementAndGet()));
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.todoapp.benchmark;
+
+import com.example.todoapp.model.UuidV7;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Insert throughput into a uuid primary key with random (v4) and time-ordered (v7) ids. It needs PostgreSQL, as
+ * H2's index says nothing about page splits; the TEST_DB_* variables select the database, with the same defaults
+ * as the integration tests. Setup preloads {@code rows} rows, and teardown prints the primary key index size and
+ * the WAL written per row, which are the other half of the comparison.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class UuidKeyBenchmark {
+
+    private static final int BATCH_SIZE = 1000;
+    private static final String TABLE = "uuid_key_benchmark";
+
+    @Param({"v4", "v7"})
+    public String version;
+
+    @Param({"1000000", "5000000"})
+    public int rows;
+
+    private Connection connection;
+    private PreparedStatement insert;
+    private long inserted;
+    private String walStart;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection(
+                "jdbc:postgresql://" + env("TEST_DB_HOST", "localhost") + ":" + env("TEST_DB_PORT", "55432")
+                        + "/" + env("TEST_DB_NAME", "todoapp_int"),
+                env("TEST_DB_USER", "todo"),
+                env("TEST_DB_PASSWORD", "todo"));
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS " + TABLE);
+            statement.execute("CREATE TABLE " + TABLE
+                    + " (id UUID PRIMARY KEY, title VARCHAR(255) NOT NULL, created_at TIMESTAMP NOT NULL)");
+        }
+        connection.setAutoCommit(false);
+        insert = connection.prepareStatement("INSERT INTO " + TABLE + " (id, title, created_at) VALUES (?, ?, ?)");
+        for (int i = 0; i < rows; i += BATCH_SIZE) {
+            insertBatch();
+        }
+        inserted = 0;
+        walStart = query("SELECT pg_current_wal_lsn()::text");
+        System.out.printf("%n%s after preloading %d rows: %s%n", version, rows, sizes());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        String wal = query("SELECT pg_wal_lsn_diff(pg_current_wal_lsn(), '" + walStart + "')::bigint");
+        System.out.printf("%n%s after %d more rows: %s, wal=%d B/row%n",
+                version, inserted, sizes(), Long.parseLong(wal) / Math.max(inserted, 1));
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE " + TABLE);
+        }
+        connection.commit();
+        connection.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void insertBatch() throws SQLException {
+        Timestamp now = Timestamp.from(Instant.now());
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            insert.setObject(1, "v7".equals(version) ? UuidV7.next() : UUID.randomUUID());
+            insert.setString(2, "Benchmark todo");
+            insert.setTimestamp(3, now);
+            insert.addBatch();
+        }
+        insert.executeBatch();
+        connection.commit();
+        inserted += BATCH_SIZE;
+    }
+
+    private String sizes() throws SQLException {
+        return query("SELECT 'index=' || pg_size_pretty(pg_relation_size('" + TABLE + "_pkey'))"
+                + " || ', table=' || pg_size_pretty(pg_relation_size('" + TABLE + "'))");
+    }
+
+    private String query(String sql) throws SQLException {
+        try (Statement statement = connection.createStatement(); ResultSet result = statement.executeQuery(sql)) {
+            result.next();
+            return result.getString(1);
+        }
+    }
+
+    private static String env(String name, String fallback) {
+        return System.getenv().getOrDefault(name, fallback);
+    }
+}
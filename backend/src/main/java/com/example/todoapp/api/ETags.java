@@ -0,0 +1,100 @@
+package com.example.todoapp.api;
+
+import com.example.todoapp.api.dto.TodoResponse;
+import com.example.todoapp.repository.TodoListVersion;
+import com.example.todoapp.repository.TodoSummary;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Entity tags derived from {@code updatedAt}, so they can be computed without serializing a body.
+ *
+ * <p>Single todos get strong tags because {@code If-Match} needs them. List tags are weak: they identify the
+ * version of the rows, not the bytes, which is all {@code If-None-Match} compares, and Tomcat will not compress a
+ * response that carries a strong tag.
+ */
+public final class ETags {
+
+    private ETags() {
+    }
+
+    public static String of(TodoResponse todo) {
+        return quote(Long.toString(micros(todo.getUpdatedAt()), 36));
+    }
+
+    public static String of(TodoListVersion version) {
+        return weak(fingerprint(version));
+    }
+
+    /**
+     * Tag for the summary representation of a list; it must differ from the full one for the same rows.
+     */
+    public static String ofSummary(TodoListVersion version) {
+        return weak(fingerprint(version) + "-s");
+    }
+
+    public static String ofSummaries(Collection<TodoSummary> todos) {
+        Instant max = todos.stream()
+                .map(TodoSummary::updatedAt)
+                .max(Instant::compareTo)
+                .orElse(null);
+        return ofSummary(new TodoListVersion(todos.size(), max));
+    }
+
+    public static String of(Collection<TodoResponse> todos) {
+        Instant max = todos.stream()
+                .map(TodoResponse::getUpdatedAt)
+                .max(Instant::compareTo)
+                .orElse(null);
+        return of(new TodoListVersion(todos.size(), max));
+    }
+
+    /**
+     * Evaluates an {@code If-Match} header against the current tag; absent headers always match.
+     */
+    public static boolean ifMatch(String header, String etag) {
+        return header == null || anyMatch(header, etag, false);
+    }
+
+    /**
+     * Evaluates an {@code If-None-Match} header against the current tag; true means "not modified".
+     */
+    public static boolean ifNoneMatch(String header, String etag) {
+        return header != null && anyMatch(header, etag, true);
+    }
+
+    private static boolean anyMatch(String header, String etag, boolean weak) {
+        // Strong comparison never matches a weak tag; weak comparison ignores the W/ prefix on both sides.
+        if (!weak && etag.startsWith("W/")) {
+            return header.trim().equals("*");
+        }
+        String opaque = weak ? opaque(etag) : etag;
+        return Arrays.stream(header.split(","))
+                .map(String::trim)
+                .map(candidate -> weak ? opaque(candidate) : candidate)
+                .anyMatch(candidate -> candidate.equals("*") || candidate.equals(opaque));
+    }
+
+    private static String opaque(String etag) {
+        return etag.startsWith("W/") ? etag.substring(2) : etag;
+    }
+
+    private static String fingerprint(TodoListVersion version) {
+        long max = version.maxUpdatedAt() == null ? 0 : micros(version.maxUpdatedAt());
+        return version.count() + "-" + Long.toString(max, 36);
+    }
+
+    private static long micros(Instant instant) {
+        return ChronoUnit.MICROS.between(Instant.EPOCH, instant);
+    }
+
+    private static String quote(String value) {
+        return "\"" + value + "\"";
+    }
+
+    private static String weak(String value) {
+        return "W/" + quote(value);
+    }
+}
@@ -0,0 +1,239 @@
+package com.example.todoapp.api;
+
+import com.example.todoapp.service.TodoChangedEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Fans committed {@link TodoChangedEvent}s out to Server-Sent Events subscribers.
+ *
+ * <p>Publishing never blocks the committing thread: each subscriber has a bounded queue drained on a virtual
+ * thread, and a subscriber whose queue overflows is disconnected. A recent window of events is kept so a client
+ * reconnecting with {@code Last-Event-ID} gets what it missed; if that is no longer possible it receives a
+ * {@code reset} event and should reload the list.
+ *
+ * <p>The feed only carries changes committed by this instance, and its event ids mean nothing to any other. With
+ * more than one replica a subscriber misses writes served elsewhere, and a reconnect that lands on another
+ * instance gets a reset. Clients must treat the feed as a shortcut and still refetch lists periodically.
+ */
+@Component
+public class TodoChangeFeed implements MeterBinder, DisposableBean {
+
+    public static final String CHANGE_EVENT = "todo";
+    public static final String RESET_EVENT = "reset";
+
+    private static final Change HEARTBEAT = new Change(0, null, null);
+
+    private final ObjectMapper objectMapper;
+    private final int bufferSize;
+    private final int replaySize;
+    private final long timeoutMillis;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final Deque<Change> history = new ArrayDeque<>();
+    private final ExecutorService dispatcher =
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("todo-events-", 0).factory());
+    private final ScheduledExecutorService heartbeats = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("todo-events-heartbeat").daemon().factory());
+    // Prefixes every id, so a Last-Event-ID issued by another instance, or before a restart, never looks recent.
+    private final String instance = Long.toString(ThreadLocalRandom.current().nextLong() >>> 1, 36) + "-";
+    private long lastId;
+    private Counter published;
+    private Counter dropped;
+
+    public TodoChangeFeed(
+            ObjectMapper objectMapper,
+            @Value("${todo.events.buffer-size:256}") int bufferSize,
+            @Value("${todo.events.replay-size:1000}") int replaySize,
+            @Value("${todo.events.heartbeat:15s}") Duration heartbeat,
+            @Value("${todo.events.timeout:30m}") Duration timeout) {
+        this.objectMapper = objectMapper;
+        this.bufferSize = bufferSize;
+        this.replaySize = replaySize;
+        this.timeoutMillis = timeout.toMillis();
+        heartbeats.scheduleAtFixedRate(
+                () -> subscribers.forEach(s -> s.offer(HEARTBEAT)),
+                heartbeat.toMillis(), heartbeat.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    public SseEmitter subscribe(String lastEventId) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        subscribe(emitter, lastEventId);
+        return emitter;
+    }
+
+    void subscribe(SseEmitter emitter, String lastEventId) {
+        Subscriber subscriber = new Subscriber(emitter);
+        emitter.onCompletion(subscriber::close);
+        emitter.onError(ex -> subscriber.close());
+        emitter.onTimeout(() -> {
+            subscriber.close();
+            emitter.complete();
+        });
+        synchronized (history) {
+            if (lastEventId != null) {
+                replay(subscriber, lastEventId);
+            }
+            subscribers.add(subscriber);
+        }
+    }
+
+    // Runs after commit so subscribers never see a write that rolled back; without a transaction it runs inline.
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onChange(TodoChangedEvent event) {
+        String data;
+        try {
+            data = objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Could not serialize " + event, ex);
+        }
+        // Ids are assigned and queued under the lock so every subscriber sees events in id order.
+        synchronized (history) {
+            Change change = new Change(++lastId, CHANGE_EVENT, data);
+            history.addLast(change);
+            if (history.size() > replaySize) {
+                history.removeFirst();
+            }
+            subscribers.forEach(s -> s.offer(change));
+        }
+        if (published != null) {
+            published.increment();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("todo.events.subscribers", subscribers, Set::size)
+                .description("Open change feed connections")
+                .register(registry);
+        published = Counter.builder("todo.events.published")
+                .description("Changes published to the feed")
+                .register(registry);
+        dropped = Counter.builder("todo.events.dropped")
+                .description("Subscribers disconnected because they fell too far behind")
+                .register(registry);
+    }
+
+    @Override
+    public void destroy() {
+        heartbeats.shutdownNow();
+        subscribers.forEach(s -> {
+            s.close();
+            s.emitter.complete();
+        });
+        dispatcher.shutdown();
+    }
+
+    private void replay(Subscriber subscriber, String lastEventId) {
+        long after;
+        try {
+            String id = lastEventId.trim();
+            if (!id.startsWith(instance)) {
+                subscriber.offer(new Change(0, RESET_EVENT, ""));
+                return;
+            }
+            after = Long.parseLong(id.substring(instance.length()));
+        } catch (NumberFormatException ex) {
+            subscriber.offer(new Change(0, RESET_EVENT, ""));
+            return;
+        }
+        long oldest = history.isEmpty() ? lastId + 1 : history.getFirst().seq();
+        long missed = lastId - after;
+        if (after > lastId || after < oldest - 1 || missed > bufferSize) {
+            subscriber.offer(new Change(0, RESET_EVENT, ""));
+            return;
+        }
+        history.stream()
+                .filter(change -> change.seq() > after)
+                .forEach(subscriber::offer);
+    }
+
+    // seq is zero for events that carry no id.
+    private record Change(long seq, String name, String data) {
+
+        SseEmitter.SseEventBuilder toEvent(String instance) {
+            if (name == null) {
+                return SseEmitter.event().comment("heartbeat");
+            }
+            SseEmitter.SseEventBuilder event = SseEmitter.event().name(name).data(data);
+            return seq == 0 ? event : event.id(instance + seq);
+        }
+    }
+
+    private final class Subscriber implements Runnable {
+
+        private final SseEmitter emitter;
+        private final BlockingQueue<Change> queue = new ArrayBlockingQueue<>(bufferSize);
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private volatile boolean closed;
+
+        Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        void offer(Change change) {
+            if (closed) {
+                return;
+            }
+            if (!queue.offer(change)) {
+                // Completing may wait for a send stuck on this client, so do it off the publishing thread.
+                close();
+                if (dropped != null) {
+                    dropped.increment();
+                }
+                dispatcher.execute(emitter::complete);
+                return;
+            }
+            if (scheduled.compareAndSet(false, true)) {
+                dispatcher.execute(this);
+            }
+        }
+
+        void close() {
+            closed = true;
+            subscribers.remove(this);
+            queue.clear();
+        }
+
+        @Override
+        public void run() {
+            try {
+                Change change;
+                while (!closed && (change = queue.poll()) != null) {
+                    emitter.send(change.toEvent(instance));
+                }
+            } catch (IOException | IllegalStateException ex) {
+                close();
+                emitter.completeWithError(ex);
+            } finally {
+                scheduled.set(false);
+            }
+            // Pick up anything offered between the last poll and clearing the flag.
+            if (!closed && !queue.isEmpty() && scheduled.compareAndSet(false, true)) {
+                dispatcher.execute(this);
+            }
+        }
+    }
+}
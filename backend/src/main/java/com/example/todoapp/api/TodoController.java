@@ -1,17 +1,42 @@
 package com.example.todoapp.api;
 
+import com.example.todoapp.api.dto.BulkResponse;
+import com.example.todoapp.api.dto.BulkStatusUpdate;
+import com.example.todoapp.api.dto.BulkTodoUpdate;
+import com.example.todoapp.api.dto.TodoChangesResponse;
+import com.example.todoapp.api.dto.TodoPageResponse;
 import com.example.todoapp.api.dto.TodoRequest;
 import com.example.todoapp.api.dto.TodoResponse;
+import com.example.todoapp.api.dto.TodoStatsCheckResponse;
+import com.example.todoapp.api.dto.TodoStatsResponse;
 import com.example.todoapp.api.dto.UpdateStatusRequest;
 import com.example.todoapp.model.TodoStatus;
+import com.example.todoapp.repository.DueTodo;
+import com.example.todoapp.repository.TodoSummary;
+import com.example.todoapp.service.DueDateIndex;
+import com.example.todoapp.service.TodoChangeLog;
 import com.example.todoapp.service.TodoService;
+import com.example.todoapp.service.TodoStats;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.micrometer.core.annotation.Timed;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.UUID;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -19,32 +44,164 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 @RestController
 @RequestMapping("/api/todos")
 @CrossOrigin
+@Timed(value = "todo.api", histogram = true, percentiles = {0.5, 0.95, 0.99})
 public class TodoController {
 
+    public static final String NDJSON = "application/x-ndjson";
+    public static final String SMILE = "application/x-jackson-smile";
+
     private final TodoService service;
+    private final ObjectMapper objectMapper;
+    private final ObjectMapper smileMapper;
+    private final TodoChangeFeed changeFeed;
+    private final TodoStats stats;
+    private final TodoChangeLog changeLog;
+    private final DueDateIndex dueDates;
 
-    public TodoController(TodoService service) {
+    public TodoController(
+            TodoService service,
+            ObjectMapper objectMapper,
+            MappingJackson2SmileHttpMessageConverter smileConverter,
+            TodoChangeFeed changeFeed,
+            TodoStats stats,
+            TodoChangeLog changeLog,
+            DueDateIndex dueDates) {
         this.service = service;
+        this.objectMapper = objectMapper;
+        this.smileMapper = smileConverter.getObjectMapper();
+        this.changeFeed = changeFeed;
+        this.stats = stats;
+        this.changeLog = changeLog;
+        this.dueDates = dueDates;
     }
 
     @GetMapping
-    public List<TodoResponse> list(
+    public ResponseEntity<List<TodoResponse>> list(
+            @RequestParam(required = false) TodoStatus status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fromDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate toDate,
+            @RequestParam(defaultValue = "false") boolean includeArchived,
+            @RequestParam(required = false) String q,
+            @RequestParam(defaultValue = "50") int limit,
+            @RequestParam(defaultValue = "0") int offset,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        if (q != null && !q.isBlank()) {
+            // Ranked search results are paged by limit/offset; there is no cheap version query for them.
+            List<TodoResponse> matches = service.search(status, fromDate, toDate, includeArchived, q, limit, offset);
+            String etag = ETags.of(matches);
+            if (ifNoneMatch != null && ETags.ifNoneMatch(ifNoneMatch, etag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+            }
+            return ResponseEntity.ok().eTag(etag).body(matches);
+        }
+        // Lists only carry an ETag: a delete never advances max(updatedAt), so Last-Modified could go stale.
+        if (ifNoneMatch != null) {
+            String current = ETags.of(service.listVersion(status, fromDate, toDate, includeArchived));
+            if (ETags.ifNoneMatch(ifNoneMatch, current)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(current).build();
+            }
+        }
+        List<TodoResponse> todos = service.list(status, fromDate, toDate, includeArchived);
+        return ResponseEntity.ok().eTag(ETags.of(todos)).body(todos);
+    }
+
+    // Search keeps returning full rows; summaries only cover the filtered list.
+    @GetMapping(params = {"view=summary", "!q"})
+    public ResponseEntity<List<TodoSummary>> listSummaries(
             @RequestParam(required = false) TodoStatus status,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fromDate,
-            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate toDate) {
-        return service.list(status, fromDate, toDate);
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate toDate,
+            @RequestParam(defaultValue = "false") boolean includeArchived,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        if (ifNoneMatch != null) {
+            String current = ETags.ofSummary(service.listVersion(status, fromDate, toDate, includeArchived));
+            if (ETags.ifNoneMatch(ifNoneMatch, current)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(current).build();
+            }
+        }
+        List<TodoSummary> todos = service.listSummaries(status, fromDate, toDate, includeArchived);
+        return ResponseEntity.ok().eTag(ETags.ofSummaries(todos)).body(todos);
+    }
+
+    @GetMapping("/page")
+    public TodoPageResponse page(
+            @RequestParam(required = false) TodoStatus status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fromDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate toDate,
+            @RequestParam(defaultValue = "false") boolean includeArchived,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+        return service.page(status, fromDate, toDate, includeArchived, cursor, limit);
+    }
+
+    // Smile is opt-in: it is only chosen when asked for explicitly and preferred over NDJSON.
+    @GetMapping(value = "/export", produces = {NDJSON, SMILE})
+    public void export(
+            @RequestParam(required = false) TodoStatus status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fromDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate toDate,
+            @RequestParam(defaultValue = "false") boolean includeArchived,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            HttpServletResponse response) throws IOException {
+        if (prefersSmile(accept)) {
+            // A stream of Smile documents, one per todo; Smile needs no separator between root values.
+            response.setContentType(SMILE);
+            export(status, fromDate, toDate, includeArchived, smileMapper, false, response.getOutputStream());
+        } else {
+            response.setContentType(NDJSON);
+            response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+            export(status, fromDate, toDate, includeArchived, objectMapper, true, response.getOutputStream());
+        }
+    }
+
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter events(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        return changeFeed.subscribe(lastEventId);
+    }
+
+    // Overdue and due-this-week are relative to the caller's date when given, since the server's may differ.
+    @GetMapping("/stats")
+    public TodoStatsResponse stats(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate today) {
+        return stats.current(today == null ? LocalDate.now() : today);
+    }
+
+    @GetMapping("/stats/check")
+    public TodoStatsCheckResponse checkStats() {
+        return stats.check();
+    }
+
+    // Start without a watermark, then pass back the one from each response; 410 means sync from the start again.
+    @GetMapping("/changes")
+    public TodoChangesResponse changes(
+            @RequestParam(required = false) String since,
+            @RequestParam(defaultValue = "500") int limit) {
+        return changeLog.since(since, limit);
+    }
+
+    // Open todos due within the next days, overdue ones first; served from memory, so writes made through another
+    // replica can take up to todo.due.poll-interval to show.
+    @GetMapping("/due-soon")
+    public List<DueTodo> dueSoon(
+            @RequestParam(defaultValue = "7") int days,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate today,
+            @RequestParam(defaultValue = "100") int limit) {
+        return dueDates.dueBy((today == null ? LocalDate.now() : today).plusDays(days), limit);
     }
 
     @GetMapping("/{id}")
-    public TodoResponse get(@PathVariable UUID id) {
-        return service.get(id);
+    public ResponseEntity<TodoResponse> get(@PathVariable UUID id) {
+        // Spring answers If-None-Match / If-Modified-Since with 304 from these headers.
+        return versioned(service.get(id));
     }
 
     @PostMapping
@@ -54,8 +211,12 @@ public class TodoController {
     }
 
     @PutMapping("/{id}")
-    public TodoResponse update(@PathVariable UUID id, @RequestBody @Valid TodoRequest request) {
-        return service.update(id, request);
+    public ResponseEntity<TodoResponse> update(
+            @PathVariable UUID id,
+            @RequestBody @Valid TodoRequest request,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return versioned(service.update(id, request,
+                ifMatch == null ? null : current -> ETags.ifMatch(ifMatch, ETags.of(current))));
     }
 
     @PostMapping("/{id}/status")
@@ -69,4 +230,67 @@ public class TodoController {
         service.delete(id);
         return ResponseEntity.noContent().build();
     }
+
+    @PostMapping("/bulk")
+    public BulkResponse createAll(@RequestBody List<TodoRequest> requests) {
+        return service.createAll(requests);
+    }
+
+    @PutMapping("/bulk")
+    public BulkResponse updateAll(@RequestBody List<BulkTodoUpdate> requests) {
+        return service.updateAll(requests);
+    }
+
+    @PostMapping("/bulk/status")
+    public BulkResponse updateStatusAll(@RequestBody List<BulkStatusUpdate> requests) {
+        return service.updateStatusAll(requests);
+    }
+
+    @PostMapping("/bulk/delete")
+    public BulkResponse deleteAll(@RequestBody List<UUID> ids) {
+        return service.deleteAll(ids);
+    }
+
+    private void export(
+            TodoStatus status, LocalDate fromDate, LocalDate toDate, boolean includeArchived, ObjectMapper mapper,
+            boolean newlines, OutputStream out) throws IOException {
+        ObjectWriter writer = mapper.writerFor(TodoResponse.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        try (JsonGenerator generator = mapper.getFactory().createGenerator(out)) {
+            if (newlines) {
+                // NDJSON lines are separated by the newline alone, not Jackson's default space between root values.
+                generator.setRootValueSeparator(null);
+            }
+            service.export(status, fromDate, toDate, includeArchived, todo -> {
+                try {
+                    writer.writeValue(generator, todo);
+                    if (newlines) {
+                        generator.writeRaw('\n');
+                    }
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+            });
+        }
+    }
+
+    private static boolean prefersSmile(String accept) {
+        if (accept == null) {
+            return false;
+        }
+        double smile = 0;
+        double ndjson = 0;
+        for (MediaType type : MediaType.parseMediaTypes(accept)) {
+            if (type.equalsTypeAndSubtype(MediaType.parseMediaType(SMILE))) {
+                smile = Math.max(smile, type.getQualityValue());
+            } else if (type.equalsTypeAndSubtype(MediaType.parseMediaType(NDJSON))) {
+                ndjson = Math.max(ndjson, type.getQualityValue());
+            }
+        }
+        return smile > 0 && smile >= ndjson;
+    }
+
+    private static ResponseEntity<TodoResponse> versioned(TodoResponse todo) {
+        return ResponseEntity.ok().eTag(ETags.of(todo)).lastModified(todo.getUpdatedAt()).body(todo);
+    }
 }
@@ -0,0 +1,70 @@
+package com.example.todoapp.api.dto;
+
+import java.util.UUID;
+
+public class BulkItemResult {
+
+    private int index;
+    private UUID id;
+    private int status;
+    private String error;
+    private TodoResponse todo;
+
+    public static BulkItemResult success(int index, int status, UUID id, TodoResponse todo) {
+        BulkItemResult result = new BulkItemResult();
+        result.setIndex(index);
+        result.setStatus(status);
+        result.setId(id);
+        result.setTodo(todo);
+        return result;
+    }
+
+    public static BulkItemResult failure(int index, int status, UUID id, String error) {
+        BulkItemResult result = new BulkItemResult();
+        result.setIndex(index);
+        result.setStatus(status);
+        result.setId(id);
+        result.setError(error);
+        return result;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public void setIndex(int index) {
+        this.index = index;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public void setId(UUID id) {
+        this.id = id;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public void setStatus(int status) {
+        this.status = status;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+
+    public TodoResponse getTodo() {
+        return todo;
+    }
+
+    public void setTodo(TodoResponse todo) {
+        this.todo = todo;
+    }
+}
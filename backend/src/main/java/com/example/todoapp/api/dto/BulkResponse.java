@@ -0,0 +1,43 @@
+package com.example.todoapp.api.dto;
+
+import java.util.List;
+
+public class BulkResponse {
+
+    private int succeeded;
+    private int failed;
+    private List<BulkItemResult> results;
+
+    public BulkResponse() {
+    }
+
+    public BulkResponse(List<BulkItemResult> results) {
+        this.results = results;
+        this.failed = (int) results.stream().filter(r -> r.getError() != null).count();
+        this.succeeded = results.size() - failed;
+    }
+
+    public int getSucceeded() {
+        return succeeded;
+    }
+
+    public void setSucceeded(int succeeded) {
+        this.succeeded = succeeded;
+    }
+
+    public int getFailed() {
+        return failed;
+    }
+
+    public void setFailed(int failed) {
+        this.failed = failed;
+    }
+
+    public List<BulkItemResult> getResults() {
+        return results;
+    }
+
+    public void setResults(List<BulkItemResult> results) {
+        this.results = results;
+    }
+}
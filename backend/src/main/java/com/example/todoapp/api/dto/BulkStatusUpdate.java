@@ -0,0 +1,18 @@
+package com.example.todoapp.api.dto;
+
+import jakarta.validation.constraints.NotNull;
+import java.util.UUID;
+
+public class BulkStatusUpdate extends UpdateStatusRequest {
+
+    @NotNull
+    private UUID id;
+
+    public UUID getId() {
+        return id;
+    }
+
+    public void setId(UUID id) {
+        this.id = id;
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.todoapp.api.dto;
+
+import jakarta.validation.constraints.NotNull;
+import java.util.UUID;
+
+public class BulkTodoUpdate extends TodoRequest {
+
+    @NotNull
+    private UUID id;
+
+    public UUID getId() {
+        return id;
+    }
+
+    public void setId(UUID id) {
+        this.id = id;
+    }
+}
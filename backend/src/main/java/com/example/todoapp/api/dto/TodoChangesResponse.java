@@ -0,0 +1,54 @@
+package com.example.todoapp.api.dto;
+
+import java.util.List;
+import java.util.UUID;
+
+public class TodoChangesResponse {
+
+    private List<TodoResponse> upserted;
+    private List<UUID> deleted;
+    private String watermark;
+    private boolean hasMore;
+
+    public TodoChangesResponse() {
+    }
+
+    public TodoChangesResponse(List<TodoResponse> upserted, List<UUID> deleted, String watermark, boolean hasMore) {
+        this.upserted = upserted;
+        this.deleted = deleted;
+        this.watermark = watermark;
+        this.hasMore = hasMore;
+    }
+
+    public List<TodoResponse> getUpserted() {
+        return upserted;
+    }
+
+    public void setUpserted(List<TodoResponse> upserted) {
+        this.upserted = upserted;
+    }
+
+    public List<UUID> getDeleted() {
+        return deleted;
+    }
+
+    public void setDeleted(List<UUID> deleted) {
+        this.deleted = deleted;
+    }
+
+    public String getWatermark() {
+        return watermark;
+    }
+
+    public void setWatermark(String watermark) {
+        this.watermark = watermark;
+    }
+
+    public boolean isHasMore() {
+        return hasMore;
+    }
+
+    public void setHasMore(boolean hasMore) {
+        this.hasMore = hasMore;
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.todoapp.api.dto;
+
+import java.util.List;
+
+public class TodoPageResponse {
+
+    private List<TodoResponse> items;
+    private String nextCursor;
+
+    public TodoPageResponse() {
+    }
+
+    public TodoPageResponse(List<TodoResponse> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<TodoResponse> getItems() {
+        return items;
+    }
+
+    public void setItems(List<TodoResponse> items) {
+        this.items = items;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
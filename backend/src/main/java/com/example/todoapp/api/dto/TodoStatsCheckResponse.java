@@ -0,0 +1,33 @@
+package com.example.todoapp.api.dto;
+
+import java.util.List;
+
+public class TodoStatsCheckResponse {
+
+    private boolean consistent;
+    private List<String> mismatches;
+
+    public TodoStatsCheckResponse() {
+    }
+
+    public TodoStatsCheckResponse(List<String> mismatches) {
+        this.consistent = mismatches.isEmpty();
+        this.mismatches = mismatches;
+    }
+
+    public boolean isConsistent() {
+        return consistent;
+    }
+
+    public void setConsistent(boolean consistent) {
+        this.consistent = consistent;
+    }
+
+    public List<String> getMismatches() {
+        return mismatches;
+    }
+
+    public void setMismatches(List<String> mismatches) {
+        this.mismatches = mismatches;
+    }
+}
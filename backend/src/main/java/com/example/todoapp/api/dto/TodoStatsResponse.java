@@ -0,0 +1,54 @@
+package com.example.todoapp.api.dto;
+
+import com.example.todoapp.model.TodoStatus;
+import java.util.Map;
+
+public class TodoStatsResponse {
+
+    private Map<TodoStatus, Long> byStatus;
+    private long total;
+    private long overdue;
+    private long dueThisWeek;
+
+    public TodoStatsResponse() {
+    }
+
+    public TodoStatsResponse(Map<TodoStatus, Long> byStatus, long total, long overdue, long dueThisWeek) {
+        this.byStatus = byStatus;
+        this.total = total;
+        this.overdue = overdue;
+        this.dueThisWeek = dueThisWeek;
+    }
+
+    public Map<TodoStatus, Long> getByStatus() {
+        return byStatus;
+    }
+
+    public void setByStatus(Map<TodoStatus, Long> byStatus) {
+        this.byStatus = byStatus;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public void setTotal(long total) {
+        this.total = total;
+    }
+
+    public long getOverdue() {
+        return overdue;
+    }
+
+    public void setOverdue(long overdue) {
+        this.overdue = overdue;
+    }
+
+    public long getDueThisWeek() {
+        return dueThisWeek;
+    }
+
+    public void setDueThisWeek(long dueThisWeek) {
+        this.dueThisWeek = dueThisWeek;
+    }
+}
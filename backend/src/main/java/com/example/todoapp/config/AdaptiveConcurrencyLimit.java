@@ -0,0 +1,102 @@
+package com.example.todoapp.config;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.DoubleUnaryOperator;
+import java.util.function.LongSupplier;
+
+/**
+ * Concurrency limit that follows observed latency (AIMD): it grows by about one for every window of requests that
+ * finish within {@code targetLatency} while the limit is actually in use, and shrinks by {@code backoff} when a
+ * request is slow or fails, at most once per {@code targetLatency} so one burst of slow responses counts once.
+ *
+ * <p>Callers ask for a share of the limit, so lower priorities are turned away while higher ones still fit.
+ */
+public class AdaptiveConcurrencyLimit {
+
+    private static final double BACKOFF = 0.9;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong limitBits;
+    private final AtomicLong lastDecrease;
+    private final int minLimit;
+    private final int maxLimit;
+    private final long targetLatencyNanos;
+    private final LongSupplier nanoTime;
+
+    public AdaptiveConcurrencyLimit(int initialLimit, int minLimit, int maxLimit, long targetLatencyNanos) {
+        this(initialLimit, minLimit, maxLimit, targetLatencyNanos, System::nanoTime);
+    }
+
+    AdaptiveConcurrencyLimit(
+            int initialLimit, int minLimit, int maxLimit, long targetLatencyNanos, LongSupplier nanoTime) {
+        this.limitBits = new AtomicLong(Double.doubleToLongBits(initialLimit));
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.targetLatencyNanos = targetLatencyNanos;
+        this.nanoTime = nanoTime;
+        this.lastDecrease = new AtomicLong(nanoTime.getAsLong() - targetLatencyNanos);
+    }
+
+    /**
+     * Admits a request if fewer than {@code share} of the current limit are in flight; at least one always fits.
+     */
+    public boolean tryAcquire(double share) {
+        int allowed = Math.max(1, (int) (limit() * share));
+        while (true) {
+            int current = inFlight.get();
+            if (current >= allowed) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Releases an admitted request and feeds its outcome into the limit.
+     *
+     * @param failed whether the request failed in a way that suggests overload, such as a server error
+     */
+    public void release(long latencyNanos, boolean failed) {
+        int wasInFlight = inFlight.getAndDecrement();
+        if (failed || latencyNanos > targetLatencyNanos) {
+            decrease();
+        } else if (wasInFlight * 2 >= limit()) {
+            // Only grow while the limit is what holds requests back, or it drifts up during quiet periods.
+            update(limit -> Math.min(maxLimit, limit + 1 / limit));
+        }
+    }
+
+    /**
+     * Releases an admitted request whose duration says nothing about load, such as a streamed download; only a
+     * failure feeds into the limit.
+     */
+    public void releaseUnmeasured(boolean failed) {
+        inFlight.decrementAndGet();
+        if (failed) {
+            decrease();
+        }
+    }
+
+    public double limit() {
+        return Double.longBitsToDouble(limitBits.get());
+    }
+
+    public int inFlight() {
+        return inFlight.get();
+    }
+
+    private void decrease() {
+        long now = nanoTime.getAsLong();
+        long last = lastDecrease.get();
+        if (now - last >= targetLatencyNanos && lastDecrease.compareAndSet(last, now)) {
+            update(limit -> Math.max(minLimit, limit * BACKOFF));
+        }
+    }
+
+    private void update(DoubleUnaryOperator change) {
+        limitBits.updateAndGet(bits -> Double.doubleToLongBits(change.applyAsDouble(Double.longBitsToDouble(bits))));
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.todoapp.config;
+
+import com.example.todoapp.exception.ServiceUnavailableException;
+import com.example.todoapp.exception.TooManyRequestsException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.time.Duration;
+import java.util.Set;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Admission control ahead of the todo endpoints: a per-client rate limit followed by an adaptive concurrency limit.
+ * Rejected requests fail with 429 or 503 and a {@code Retry-After} before the handler runs, so they never ask the
+ * pool for a connection.
+ *
+ * <p>Under overload, unfiltered list and export calls are shed first, then other reads; writes may use the whole
+ * limit.
+ */
+public class AdmissionControl implements HandlerInterceptor, MeterBinder {
+
+    private static final String STARTED_AT = AdmissionControl.class.getName() + ".startedAt";
+    private static final Set<String> SAFE_METHODS = Set.of("GET", "HEAD", "OPTIONS", "TRACE");
+    private static final Set<String> FULL_SCANS = Set.of("/api/todos", "/api/todos/export", "/api/todos/page");
+    // Their duration follows the size of the result, not the load on the server.
+    private static final Set<String> STREAMING = Set.of("/api/todos/export");
+    private static final Set<String> FILTERS = Set.of("status", "fromDate", "toDate", "q");
+    private static final Duration OVERLOAD_RETRY_AFTER = Duration.ofSeconds(1);
+
+    public enum Priority {
+        WRITE(1.0),
+        READ(0.8),
+        FULL_SCAN(0.5);
+
+        private final double share;
+
+        Priority(double share) {
+            this.share = share;
+        }
+
+        double share() {
+            return share;
+        }
+    }
+
+    private final ClientRateLimiter rateLimiter;
+    private final AdaptiveConcurrencyLimit concurrencyLimit;
+    private MeterRegistry meterRegistry;
+
+    public AdmissionControl(ClientRateLimiter rateLimiter, AdaptiveConcurrencyLimit concurrencyLimit) {
+        this.rateLimiter = rateLimiter;
+        this.concurrencyLimit = concurrencyLimit;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        this.meterRegistry = registry;
+        Gauge.builder("todo.admission.limit", concurrencyLimit, AdaptiveConcurrencyLimit::limit)
+                .description("Current adaptive concurrency limit")
+                .register(registry);
+        Gauge.builder("todo.admission.in.flight", concurrencyLimit, AdaptiveConcurrencyLimit::inFlight)
+                .description("Requests currently admitted")
+                .register(registry);
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        Priority priority = priority(request);
+        Duration wait = rateLimiter.tryAcquire(request.getRemoteAddr());
+        if (!wait.isZero()) {
+            reject("rate-limited", priority);
+            throw new TooManyRequestsException("Too many requests", wait);
+        }
+        if (!concurrencyLimit.tryAcquire(priority.share)) {
+            reject("overloaded", priority);
+            throw new ServiceUnavailableException("Server is overloaded", OVERLOAD_RETRY_AFTER);
+        }
+        request.setAttribute(STARTED_AT, System.nanoTime());
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(
+            HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        Long startedAt = (Long) request.getAttribute(STARTED_AT);
+        if (startedAt == null) {
+            return;
+        }
+        boolean failed = ex != null || response.getStatus() >= 500;
+        if (STREAMING.contains(request.getRequestURI())) {
+            concurrencyLimit.releaseUnmeasured(failed);
+        } else {
+            concurrencyLimit.release(System.nanoTime() - startedAt, failed);
+        }
+    }
+
+    static Priority priority(HttpServletRequest request) {
+        if (!SAFE_METHODS.contains(request.getMethod())) {
+            return Priority.WRITE;
+        }
+        if (FULL_SCANS.contains(request.getRequestURI())
+                && request.getParameterMap().keySet().stream().noneMatch(FILTERS::contains)) {
+            return Priority.FULL_SCAN;
+        }
+        return Priority.READ;
+    }
+
+    private void reject(String reason, Priority priority) {
+        if (meterRegistry != null) {
+            meterRegistry.counter("todo.admission.rejected", "reason", reason, "priority", priority.name())
+                    .increment();
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.todoapp.config;
+
+import java.time.Duration;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConditionalOnProperty(name = "todo.admission.enabled", havingValue = "true")
+public class AdmissionControlConfig {
+
+    @Bean
+    public AdmissionControl admissionControl(
+            @Value("${todo.admission.rate-limit.permits-per-second:50}") double permitsPerSecond,
+            @Value("${todo.admission.rate-limit.burst:100}") int burst,
+            @Value("${todo.admission.rate-limit.max-clients:100000}") long maxClients,
+            @Value("${todo.admission.concurrency.initial-limit:50}") int initialLimit,
+            @Value("${todo.admission.concurrency.min-limit:5}") int minLimit,
+            @Value("${todo.admission.concurrency.max-limit:500}") int maxLimit,
+            @Value("${todo.admission.concurrency.target-latency:500ms}") Duration targetLatency) {
+        return new AdmissionControl(
+                new ClientRateLimiter(permitsPerSecond, burst, maxClients),
+                new AdaptiveConcurrencyLimit(initialLimit, minLimit, maxLimit, targetLatency.toNanos()));
+    }
+}
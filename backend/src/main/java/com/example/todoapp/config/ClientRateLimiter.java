@@ -0,0 +1,58 @@
+package com.example.todoapp.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Per-client token buckets, kept as the generic cell rate algorithm: each bucket is a single {@link AtomicLong}
+ * holding the time at which it will be full again, advanced with a CAS, so admitting a request never locks.
+ *
+ * <p>Buckets of idle clients are dropped once they would have refilled anyway, which bounds memory by the number of
+ * recently active clients as well as by {@code maxClients}.
+ */
+public class ClientRateLimiter {
+
+    private final long interval;
+    private final long capacity;
+    private final LongSupplier nanoTime;
+    private final Cache<String, AtomicLong> buckets;
+
+    public ClientRateLimiter(double permitsPerSecond, int burst, long maxClients) {
+        this(permitsPerSecond, burst, maxClients, System::nanoTime);
+    }
+
+    ClientRateLimiter(double permitsPerSecond, int burst, long maxClients, LongSupplier nanoTime) {
+        this.interval = (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond);
+        this.capacity = interval * burst;
+        this.nanoTime = nanoTime;
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxClients)
+                .expireAfterAccess(Duration.ofNanos(capacity))
+                .build();
+    }
+
+    /**
+     * Takes a token from the client's bucket.
+     *
+     * @return {@link Duration#ZERO} if the request is admitted, otherwise how long until a token is available
+     */
+    public Duration tryAcquire(String client) {
+        long now = nanoTime.getAsLong();
+        AtomicLong fullAt = buckets.get(client, key -> new AtomicLong(now));
+        while (true) {
+            long current = fullAt.get();
+            long next = Math.max(current - now, 0) + now + interval;
+            long excess = next - now - capacity;
+            if (excess > 0) {
+                return Duration.ofNanos(excess);
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return Duration.ZERO;
+            }
+        }
+    }
+}
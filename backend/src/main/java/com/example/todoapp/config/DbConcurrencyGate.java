@@ -0,0 +1,121 @@
+package com.example.todoapp.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.sql.DataSource;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * Fair semaphore in front of the connection pool. With virtual threads there is no thread-pool bound on
+ * concurrent requests any more, so this caps how many callers may hold or wait for a connection at once and
+ * fails fast instead of letting an unbounded queue build up inside the pool.
+ */
+public class DbConcurrencyGate implements MeterBinder {
+
+    private final String pool;
+    private final Semaphore permits;
+    private final int maxPermits;
+    private final int maxWaiting;
+    private final Duration acquireTimeout;
+
+    public DbConcurrencyGate(String pool, int maxPermits, int maxWaiting, Duration acquireTimeout) {
+        this.pool = pool;
+        this.permits = new Semaphore(maxPermits, true);
+        this.maxPermits = maxPermits;
+        this.maxWaiting = maxWaiting;
+        this.acquireTimeout = acquireTimeout;
+    }
+
+    public DataSource wrap(DataSource target) {
+        return new GatedDataSource(target);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("todo.db.gate.active", this, gate -> gate.maxPermits - gate.permits.availablePermits())
+                .description("Connections currently admitted through the gate")
+                .tag("pool", pool)
+                .register(registry);
+        Gauge.builder("todo.db.gate.waiting", permits, Semaphore::getQueueLength)
+                .description("Callers waiting for a database permit")
+                .tag("pool", pool)
+                .register(registry);
+    }
+
+    private Connection admit(Connection connection) {
+        AtomicBoolean released = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[] {Connection.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("close") && released.compareAndSet(false, true)) {
+                        try {
+                            return method.invoke(connection, args);
+                        } catch (InvocationTargetException ex) {
+                            throw ex.getCause();
+                        } finally {
+                            permits.release();
+                        }
+                    }
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException ex) {
+                        throw ex.getCause();
+                    }
+                });
+    }
+
+    private void acquire() throws SQLException {
+        if (permits.getQueueLength() >= maxWaiting) {
+            throw new SQLTransientConnectionException("Too many callers waiting for a database connection");
+        }
+        try {
+            if (!permits.tryAcquire(acquireTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                throw new SQLTransientConnectionException(
+                        "Timed out after " + acquireTimeout.toMillis() + "ms waiting for a database permit");
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrupted waiting for a database permit", ex);
+        }
+    }
+
+    private final class GatedDataSource extends DelegatingDataSource {
+
+        GatedDataSource(DataSource target) {
+            super(target);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            acquire();
+            try {
+                return admit(super.getConnection());
+            } catch (SQLException | RuntimeException ex) {
+                permits.release();
+                throw ex;
+            }
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            acquire();
+            try {
+                return admit(super.getConnection(username, password));
+            } catch (SQLException | RuntimeException ex) {
+                permits.release();
+                throw ex;
+            }
+        }
+    }
+}
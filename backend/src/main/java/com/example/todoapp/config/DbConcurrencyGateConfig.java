@@ -0,0 +1,33 @@
+package com.example.todoapp.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import java.time.Duration;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConditionalOnProperty(name = "todo.db-gate.enabled", havingValue = "true")
+public class DbConcurrencyGateConfig {
+
+    @Bean
+    public DbConcurrencyGate dbConcurrencyGate(
+            @Value("${todo.db-gate.permits:${spring.datasource.hikari.maximum-pool-size:10}}") int permits,
+            @Value("${todo.db-gate.max-waiting:500}") int maxWaiting,
+            @Value("${todo.db-gate.acquire-timeout:5s}") Duration acquireTimeout) {
+        return new DbConcurrencyGate("primary", permits, maxWaiting, acquireTimeout);
+    }
+
+    @Bean
+    public static BeanPostProcessor dbConcurrencyGatePostProcessor(ObjectProvider<DbConcurrencyGate> gate) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                return bean instanceof HikariDataSource pool ? gate.getObject().wrap(pool) : bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.todoapp.config;
+
+import com.example.todoapp.exception.BadRequestException;
+import com.example.todoapp.service.IdempotencyService;
+import com.example.todoapp.service.IdempotencyService.StoredResponse;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Optional;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import org.springframework.web.util.WebUtils;
+
+/**
+ * Replays the stored response for a repeated {@code Idempotency-Key} instead of invoking the handler, and stores
+ * the response of the first request once it completes. Runs after CORS processing so replays carry the same
+ * headers as the original.
+ *
+ * <p>Responses are kept unless they are retryable: server errors, conflicts and throttling release the key.
+ */
+public class IdempotencyInterceptor implements HandlerInterceptor {
+
+    static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final String OWNED_KEY = IdempotencyInterceptor.class.getName() + ".key";
+    private static final String FINGERPRINT = IdempotencyInterceptor.class.getName() + ".fingerprint";
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyService idempotency;
+
+    public IdempotencyInterceptor(IdempotencyService idempotency) {
+        this.idempotency = idempotency;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+            throws Exception {
+        IdempotencyFilter.CachedBodyRequest cached =
+                WebUtils.getNativeRequest(request, IdempotencyFilter.CachedBodyRequest.class);
+        if (cached == null) {
+            return true;
+        }
+        String key = request.getHeader(IdempotencyFilter.HEADER);
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new BadRequestException("Idempotency-Key must be 1 to " + MAX_KEY_LENGTH + " characters");
+        }
+        String fingerprint = fingerprint(request, cached.body());
+        Optional<StoredResponse> stored = idempotency.begin(key, fingerprint);
+        if (stored.isEmpty()) {
+            request.setAttribute(OWNED_KEY, key);
+            request.setAttribute(FINGERPRINT, fingerprint);
+            return true;
+        }
+        replay(stored.get(), response);
+        return false;
+    }
+
+    @Override
+    public void afterCompletion(
+            HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        String key = (String) request.getAttribute(OWNED_KEY);
+        if (key == null) {
+            return;
+        }
+        ContentCachingResponseWrapper wrapped =
+                WebUtils.getNativeResponse(response, ContentCachingResponseWrapper.class);
+        int status = response.getStatus();
+        if (ex != null || wrapped == null || status >= 500 || status == 409 || status == 429) {
+            idempotency.abandon(key);
+            return;
+        }
+        idempotency.complete(key, new StoredResponse(
+                (String) request.getAttribute(FINGERPRINT),
+                status,
+                response.getContentType(),
+                response.getHeader(HttpHeaders.ETAG),
+                response.getHeader(HttpHeaders.LOCATION),
+                wrapped.getContentAsByteArray()));
+    }
+
+    private static void replay(StoredResponse stored, HttpServletResponse response) throws Exception {
+        response.setStatus(stored.status());
+        if (stored.contentType() != null) {
+            response.setContentType(stored.contentType());
+        }
+        if (stored.etag() != null) {
+            response.setHeader(HttpHeaders.ETAG, stored.etag());
+        }
+        if (stored.location() != null) {
+            response.setHeader(HttpHeaders.LOCATION, stored.location());
+        }
+        response.setHeader(REPLAYED_HEADER, "true");
+        if (stored.body() != null) {
+            response.getOutputStream().write(stored.body());
+        }
+    }
+
+    private static String fingerprint(HttpServletRequest request, byte[] body) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(request.getMethod().getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) ' ');
+            digest.update(request.getRequestURI().getBytes(StandardCharsets.UTF_8));
+            if (request.getQueryString() != null) {
+                digest.update((byte) '?');
+                digest.update(request.getQueryString().getBytes(StandardCharsets.UTF_8));
+            }
+            digest.update((byte) '\n');
+            digest.update(body);
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.todoapp.config;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Timers are layered so latency can be attributed: {@code http.server.requests} covers Tomcat and Jackson,
+ * {@code todo.api} the controller method, {@code spring.data.repository.invocations} Hibernate plus Postgres,
+ * and the {@code hikaricp.*} and {@code hibernate.*} meters the pool and ORM internals.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry registry) {
+        return new TimedAspect(registry);
+    }
+}
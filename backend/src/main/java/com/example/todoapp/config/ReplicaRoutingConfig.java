@@ -0,0 +1,86 @@
+package com.example.todoapp.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import javax.sql.DataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+/**
+ * Replaces Boot's single pool with primary plus read replicas once {@code todo.replicas.urls} is set. Replica pools
+ * use {@code spring.datasource} credentials unless their own are given. They are not beans, so with
+ * {@code todo.db-gate.enabled} each gets its own {@link DbConcurrencyGate} here, sized to that pool.
+ */
+@Configuration
+@ConditionalOnExpression("!'${todo.replicas.urls:}'.isBlank()")
+public class ReplicaRoutingConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(
+            @Qualifier("primaryDataSource") DataSource primary,
+            DataSourceProperties properties,
+            @Value("${todo.replicas.urls}") List<String> urls,
+            @Value("${todo.replicas.username:}") String username,
+            @Value("${todo.replicas.password:}") String password,
+            @Value("${todo.replicas.pool-size:${spring.datasource.hikari.maximum-pool-size:10}}") int poolSize,
+            @Value("${todo.replicas.connection-timeout:2s}") Duration connectionTimeout,
+            @Value("${todo.replicas.health-check-interval:PT5S}") Duration healthCheckInterval,
+            @Value("${todo.replicas.max-lag:10s}") Duration maxLag,
+            @Value("${todo.db-gate.enabled:false}") boolean gated,
+            @Value("${todo.db-gate.max-waiting:500}") int maxWaiting,
+            @Value("${todo.db-gate.acquire-timeout:5s}") Duration acquireTimeout) {
+        List<HikariDataSource> pools = new ArrayList<>(urls.size());
+        for (int i = 0; i < urls.size(); i++) {
+            HikariDataSource pool = new HikariDataSource();
+            pool.setPoolName("replica-" + i);
+            pool.setJdbcUrl(urls.get(i).trim());
+            pool.setUsername(username.isEmpty() ? properties.determineUsername() : username);
+            pool.setPassword(password.isEmpty() ? properties.determinePassword() : password);
+            pool.setMaximumPoolSize(poolSize);
+            pool.setReadOnly(true);
+            // A replica that is down at startup must not stop the application; the health check picks it up later.
+            pool.setInitializationFailTimeout(-1);
+            pool.setConnectionTimeout(connectionTimeout.toMillis());
+            pools.add(pool);
+        }
+        return new ReplicaRoutingDataSource(
+                primary,
+                pools,
+                pool -> gated ? new DbConcurrencyGate(pool.getPoolName(), poolSize, maxWaiting, acquireTimeout) : null,
+                healthCheckInterval,
+                maxLag);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource routing) {
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+
+    @Bean
+    public ReadYourWritesFilter readYourWritesFilter(
+            @Value("${todo.replicas.read-your-writes:${todo.replicas.max-lag:10s}}") Duration window,
+            @Value("${todo.replicas.max-lag:10s}") Duration maxLag) {
+        // A shorter window would send a client back to a replica still allowed to be missing its write.
+        if (window.compareTo(maxLag) < 0) {
+            throw new IllegalStateException("todo.replicas.read-your-writes (" + window
+                    + ") must be at least todo.replicas.max-lag (" + maxLag + ")");
+        }
+        return new ReadYourWritesFilter(window);
+    }
+}
@@ -0,0 +1,212 @@
+package com.example.todoapp.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import javax.sql.DataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Hands out replica connections to read-only transactions and primary connections to everything else.
+ *
+ * <p>Replicas are used round-robin while a background check finds them reachable and not lagging too far
+ * behind; a replica that fails to hand out a connection is taken out until the next check passes. When no replica
+ * is usable, the current request is pinned by {@link ReadYourWritesFilter}, or the caller asked for it through
+ * {@link #onPrimary}, reads go to the primary. Must sit
+ * behind a {@code LazyConnectionDataSourceProxy}: the read-only flag is only known once the transaction has
+ * started, after the transaction manager first asks for a connection.
+ */
+public class ReplicaRoutingDataSource extends AbstractDataSource implements MeterBinder, DisposableBean {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    // Replay lag, or zero when the replica has applied everything it received (or is not a standby at all).
+    private static final String POSTGRES_LAG_SQL = """
+            SELECT CASE WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0) END
+            """;
+
+    private static final ThreadLocal<Boolean> PRIMARY = new ThreadLocal<>();
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final Duration maxLag;
+    private final AtomicInteger next = new AtomicInteger();
+    private final ScheduledExecutorService healthChecks = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("todo-replica-health").daemon().factory());
+    private Counter fallbacks;
+
+    public ReplicaRoutingDataSource(
+            DataSource primary, List<HikariDataSource> replicas, Duration healthCheckInterval, Duration maxLag) {
+        this(primary, replicas, pool -> null, healthCheckInterval, maxLag);
+    }
+
+    /**
+     * @param gates the {@link DbConcurrencyGate} in front of each replica pool, or {@code null} for an ungated one
+     */
+    public ReplicaRoutingDataSource(
+            DataSource primary,
+            List<HikariDataSource> replicas,
+            Function<HikariDataSource, DbConcurrencyGate> gates,
+            Duration healthCheckInterval,
+            Duration maxLag) {
+        this.primary = primary;
+        this.replicas = replicas.stream().map(pool -> new Replica(pool, gates.apply(pool))).toList();
+        this.maxLag = maxLag;
+        healthChecks.scheduleWithFixedDelay(
+                this::checkReplicas, 0, healthCheckInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Runs {@code work} with every connection it asks for taken from the primary, for reads whose result outlives
+     * the request and must not lag behind writes already committed.
+     */
+    public static <T> T onPrimary(Supplier<T> work) {
+        Boolean outer = PRIMARY.get();
+        PRIMARY.set(true);
+        try {
+            return work.get();
+        } finally {
+            PRIMARY.set(outer);
+        }
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly() || ReadYourWritesFilter.isPinned()
+                || Boolean.TRUE.equals(PRIMARY.get())) {
+            return primary.getConnection();
+        }
+        int start = Math.floorMod(next.getAndIncrement(), replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get((start + i) % replicas.size());
+            if (replica.healthy) {
+                try {
+                    return replica.connections.getConnection();
+                } catch (SQLException ex) {
+                    // Hikari and the gate time out with no cause when every connection is merely in use: the replica
+                    // is busy, not broken, so try the next one and leave its health to checkReplicas().
+                    if (!(ex instanceof SQLTransientConnectionException) || ex.getCause() != null) {
+                        replica.down(ex.getMessage());
+                    }
+                }
+            }
+        }
+        if (fallbacks != null) {
+            fallbacks.increment();
+        }
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        // Replica pools carry their own credentials, so explicit ones can only be meant for the primary.
+        return primary.getConnection(username, password);
+    }
+
+    /**
+     * Every replica pool, reachable or not.
+     */
+    public List<HikariDataSource> replicaPools() {
+        return replicas.stream().map(replica -> replica.pool).toList();
+    }
+
+    public int healthyReplicas() {
+        return (int) replicas.stream().filter(replica -> replica.healthy).count();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (Replica replica : replicas) {
+            Gauge.builder("todo.db.replica.healthy", replica, r -> r.healthy ? 1 : 0)
+                    .description("Whether read-only transactions are being routed to this replica")
+                    .tag("pool", replica.pool.getPoolName())
+                    .register(registry);
+            if (replica.gate != null) {
+                replica.gate.bindTo(registry);
+            }
+        }
+        fallbacks = Counter.builder("todo.db.replica.fallbacks")
+                .description("Read-only connections served by the primary because no replica was usable")
+                .register(registry);
+    }
+
+    @Override
+    public void destroy() {
+        healthChecks.shutdownNow();
+        replicas.forEach(replica -> replica.pool.close());
+    }
+
+    private void checkReplicas() {
+        for (Replica replica : replicas) {
+            try (Connection connection = replica.pool.getConnection()) {
+                Duration lag = lag(connection);
+                if (lag.compareTo(maxLag) > 0) {
+                    replica.down("replication lag " + lag);
+                } else {
+                    replica.up();
+                }
+            } catch (SQLException | RuntimeException ex) {
+                replica.down(ex.getMessage());
+            }
+        }
+    }
+
+    private static Duration lag(Connection connection) throws SQLException {
+        if (!"PostgreSQL".equals(connection.getMetaData().getDatabaseProductName())) {
+            return Duration.ZERO;
+        }
+        try (Statement statement = connection.createStatement();
+             ResultSet rows = statement.executeQuery(POSTGRES_LAG_SQL)) {
+            rows.next();
+            return Duration.ofMillis((long) (rows.getDouble(1) * 1000));
+        }
+    }
+
+    private static final class Replica {
+
+        private final HikariDataSource pool;
+        private final DbConcurrencyGate gate;
+        private final DataSource connections;
+        private volatile boolean healthy;
+
+        Replica(HikariDataSource pool, DbConcurrencyGate gate) {
+            this.pool = pool;
+            this.gate = gate;
+            this.connections = gate == null ? pool : gate.wrap(pool);
+        }
+
+        void up() {
+            if (!healthy) {
+                log.info("Routing reads to replica {}", pool.getPoolName());
+                healthy = true;
+            }
+        }
+
+        void down(String reason) {
+            if (healthy) {
+                log.warn("Taking replica {} out of rotation: {}", pool.getPoolName(), reason);
+                healthy = false;
+            }
+        }
+    }
+}
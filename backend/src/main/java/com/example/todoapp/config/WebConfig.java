@@ -1,18 +1,33 @@
 package com.example.todoapp.config;
 
+import com.example.todoapp.service.IdempotencyService;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
 import java.util.List;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
 
     private final List<String> allowedOrigins;
+    private final IdempotencyService idempotencyService;
+    private final ObjectProvider<AdmissionControl> admissionControl;
 
-    public WebConfig(@Value("${todo.cors.allowed-origins}") List<String> allowedOrigins) {
+    public WebConfig(
+            @Value("${todo.cors.allowed-origins}") List<String> allowedOrigins,
+            IdempotencyService idempotencyService,
+            ObjectProvider<AdmissionControl> admissionControl) {
         this.allowedOrigins = allowedOrigins;
+        this.idempotencyService = idempotencyService;
+        this.admissionControl = admissionControl;
     }
 
     @Override
@@ -20,6 +35,35 @@ public class WebConfig implements WebMvcConfigurer {
         registry.addMapping("/api/**")
                 .allowedOrigins(allowedOrigins.toArray(String[]::new))
                 .allowedMethods("GET", "POST", "PUT", "DELETE", "PATCH")
-                .allowCredentials(false);
+                .exposedHeaders("ETag", "Last-Modified", "Retry-After", IdempotencyInterceptor.REPLAYED_HEADER)
+                // Credentials carry the read-your-writes cookie set by ReadYourWritesFilter.
+                .allowCredentials(true);
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        // First, so rejected requests do no other work; the change feed holds its request open by design.
+        admissionControl.ifAvailable(admission -> registry.addInterceptor(admission)
+                .addPathPatterns("/api/todos/**")
+                .excludePathPatterns("/api/todos/events"));
+        registry.addInterceptor(new IdempotencyInterceptor(idempotencyService)).addPathPatterns("/api/todos/**");
+    }
+
+    @Bean
+    public IdempotencyFilter idempotencyFilter() {
+        return new IdempotencyFilter();
+    }
+
+    /**
+     * Opt-in binary JSON for {@code Accept: application/x-jackson-smile}, built from Boot's mapper settings so
+     * dates and modules match the JSON output. Field names and short repeated values such as statuses are written
+     * once per document and back-referenced afterwards.
+     */
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        SmileFactory factory = SmileFactory.builder()
+                .enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES)
+                .build();
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(factory).build());
     }
 }
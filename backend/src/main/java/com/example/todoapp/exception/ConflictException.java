@@ -0,0 +1,17 @@
+package com.example.todoapp.exception;
+
+import java.time.Duration;
+
+public class ConflictException extends RuntimeException {
+
+    private final Duration retryAfter;
+
+    public ConflictException(String message, Duration retryAfter) {
+        super(message);
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.todoapp.exception;
+
+public class UnprocessableEntityException extends RuntimeException {
+    public UnprocessableEntityException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.todoapp.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.time.Instant;
+
+/**
+ * The stored outcome of a request sent with an {@code Idempotency-Key}. A row without {@code completedAt} is a
+ * claim: the first request with that key is still running.
+ */
+@Entity
+@Table(name = "idempotency_keys")
+public class IdempotencyRecord {
+
+    @Id
+    @Column(name = "idempotency_key")
+    private String key;
+
+    @Column(nullable = false, length = 64)
+    private String fingerprint;
+
+    @Column(nullable = false, updatable = false)
+    private Instant createdAt;
+
+    @Column(nullable = false)
+    private Instant expiresAt;
+
+    private Instant completedAt;
+
+    private Integer responseStatus;
+
+    private String responseContentType;
+
+    private String responseEtag;
+
+    @Column(length = 2048)
+    private String responseLocation;
+
+    private byte[] responseBody;
+
+    protected IdempotencyRecord() {
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public String getFingerprint() {
+        return fingerprint;
+    }
+
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+
+    public Instant getCompletedAt() {
+        return completedAt;
+    }
+
+    public Integer getResponseStatus() {
+        return responseStatus;
+    }
+
+    public String getResponseContentType() {
+        return responseContentType;
+    }
+
+    public String getResponseEtag() {
+        return responseEtag;
+    }
+
+    public String getResponseLocation() {
+        return responseLocation;
+    }
+
+    public byte[] getResponseBody() {
+        return responseBody;
+    }
+
+    public void complete(int status, String contentType, String etag, String location, byte[] body,
+            Instant expiresAt) {
+        this.completedAt = Todo.now();
+        this.expiresAt = expiresAt;
+        this.responseStatus = status;
+        this.responseContentType = contentType;
+        this.responseEtag = etag;
+        this.responseLocation = location;
+        this.responseBody = body;
+    }
+}
@@ -1,25 +1,40 @@
 package com.example.todoapp.model;
 
 import jakarta.persistence.Column;
+import jakarta.persistence.ColumnResult;
+import jakarta.persistence.EntityResult;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.PrePersist;
 import jakarta.persistence.PreUpdate;
+import jakarta.persistence.SqlResultSetMapping;
 import jakarta.persistence.Table;
 import java.time.Instant;
 import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
 import java.util.UUID;
 
 @Entity
 @Table(name = "todos")
+@SqlResultSetMapping(
+        name = Todo.WITH_PREVIOUS_STATUS,
+        entities = @EntityResult(entityClass = Todo.class),
+        columns = @ColumnResult(name = "previous_status", type = String.class))
+@SqlResultSetMapping(
+        name = Todo.WITH_CHANGE_SEQ,
+        entities = @EntityResult(entityClass = Todo.class),
+        columns = @ColumnResult(name = "change_seq", type = Long.class))
 public class Todo {
 
+    public static final String WITH_PREVIOUS_STATUS = "TodoWithPreviousStatus";
+    // change_seq is written by TodoChangeLog with plain SQL and not mapped, so entity writes never overwrite it.
+    public static final String WITH_CHANGE_SEQ = "TodoWithChangeSeq";
+
+    // Time-ordered, so new rows share the index's right-most pages; ids created before that stay random v4.
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @UuidV7Generator.Generated
     private UUID id;
 
     @Column(nullable = false)
@@ -40,6 +55,10 @@ public class Todo {
     @Column(nullable = false)
     private Instant updatedAt;
 
+    // Set in bulk by TodoArchiver; reopening a todo brings it back to the hot partition.
+    @Column(nullable = false)
+    private boolean archived;
+
     public UUID getId() {
         return id;
     }
@@ -66,6 +85,9 @@ public class Todo {
 
     public void setStatus(TodoStatus status) {
         this.status = status;
+        if (status != TodoStatus.DONE) {
+            this.archived = false;
+        }
     }
 
     public LocalDate getDueDate() {
@@ -84,9 +106,13 @@ public class Todo {
         return updatedAt;
     }
 
+    public boolean isArchived() {
+        return archived;
+    }
+
     @PrePersist
     public void onCreate() {
-        Instant now = Instant.now();
+        Instant now = now();
         this.createdAt = now;
         this.updatedAt = now;
         if (status == null) {
@@ -96,6 +122,11 @@ public class Todo {
 
     @PreUpdate
     public void onUpdate() {
-        this.updatedAt = Instant.now();
+        this.updatedAt = now();
+    }
+
+    // Postgres stores microseconds; truncating keeps in-memory values equal to persisted ones for cursors.
+    public static Instant now() {
+        return Instant.now().truncatedTo(ChronoUnit.MICROS);
     }
 }
@@ -0,0 +1,46 @@
+package com.example.todoapp.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * Marks a deleted todo so sync clients can learn about the removal; purged after the retention window.
+ */
+@Entity
+@Table(name = "todo_tombstones")
+public class TodoTombstone {
+
+    @Id
+    private UUID id;
+
+    @Column(nullable = false)
+    private long changeSeq;
+
+    @Column(nullable = false)
+    private Instant deletedAt;
+
+    protected TodoTombstone() {
+    }
+
+    public TodoTombstone(UUID id, long changeSeq, Instant deletedAt) {
+        this.id = id;
+        this.changeSeq = changeSeq;
+        this.deletedAt = deletedAt;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public long getChangeSeq() {
+        return changeSeq;
+    }
+
+    public Instant getDeletedAt() {
+        return deletedAt;
+    }
+}
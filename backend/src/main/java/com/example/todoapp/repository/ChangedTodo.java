@@ -0,0 +1,10 @@
+package com.example.todoapp.repository;
+
+import com.example.todoapp.model.Todo;
+
+public record ChangedTodo(Todo todo, long changeSeq) {
+
+    public TodoChangeWatermark watermark() {
+        return new TodoChangeWatermark(changeSeq, todo.getId());
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.todoapp.repository;
+
+import jakarta.persistence.EntityManager;
+import java.sql.Date;
+import java.time.Instant;
+import java.time.LocalDate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Lease and progress of the overdue scheduler, kept in the single {@code due_date_scheduler} row.
+ */
+@Repository
+public class DueDateSchedulerRepository {
+
+    private final EntityManager entityManager;
+
+    public DueDateSchedulerRepository(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * Takes the lease when it is free or expired, or renews it when {@code owner} already holds it. The row stays
+     * locked until the transaction ends, so no other replica can take over while the caller is firing.
+     *
+     * @return whether {@code owner} holds the lease until {@code until}
+     */
+    public boolean acquire(String owner, Instant now, Instant until) {
+        return entityManager.createNativeQuery("""
+                        UPDATE due_date_scheduler SET owner = :owner, lease_until = :until
+                        WHERE id = 1 AND (owner IS NULL OR owner = :owner OR lease_until < :now)
+                        """)
+                .setParameter("owner", owner)
+                .setParameter("now", now)
+                .setParameter("until", until)
+                .executeUpdate() == 1;
+    }
+
+    public LocalDate firedThrough() {
+        Object firedThrough = entityManager
+                .createNativeQuery("SELECT fired_through FROM due_date_scheduler WHERE id = 1")
+                .getSingleResult();
+        return firedThrough == null ? null : ((Date) firedThrough).toLocalDate();
+    }
+
+    public void setFiredThrough(LocalDate date) {
+        entityManager.createNativeQuery("UPDATE due_date_scheduler SET fired_through = :date WHERE id = 1")
+                .setParameter("date", date)
+                .executeUpdate();
+    }
+}
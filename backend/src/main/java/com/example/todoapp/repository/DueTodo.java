@@ -0,0 +1,12 @@
+package com.example.todoapp.repository;
+
+import com.example.todoapp.model.TodoStatus;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * An open todo with a due date, as held by the in-memory due date index and returned by
+ * {@code GET /api/todos/due-soon}.
+ */
+public record DueTodo(UUID id, String title, TodoStatus status, LocalDate dueDate) {
+}
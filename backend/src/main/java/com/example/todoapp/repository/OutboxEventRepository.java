@@ -0,0 +1,40 @@
+package com.example.todoapp.repository;
+
+import com.example.todoapp.model.OutboxEvent;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, UUID> {
+
+    /**
+     * Locks up to {@code limit} due events with {@code FOR UPDATE SKIP LOCKED}: rows another dispatcher already
+     * holds are skipped rather than waited for, so replicas drain the outbox in parallel without overlap.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = AvailableSettings.JAKARTA_LOCK_TIMEOUT, value = "-2"))
+    @Query("""
+            SELECT e FROM OutboxEvent e
+            WHERE e.failedAt IS NULL AND e.nextAttemptAt <= :now
+            ORDER BY e.nextAttemptAt
+            """)
+    List<OutboxEvent> claimDue(@Param("now") Instant now, Limit limit);
+
+    @Query("SELECT COUNT(e) FROM OutboxEvent e WHERE e.failedAt IS NULL")
+    long countPending();
+
+    /**
+     * Creation time of the oldest event still waiting for delivery, or null when there is none.
+     */
+    @Query("SELECT MIN(e.createdAt) FROM OutboxEvent e WHERE e.failedAt IS NULL")
+    Instant oldestPendingCreatedAt();
+}
@@ -0,0 +1,138 @@
+package com.example.todoapp.repository;
+
+import com.example.todoapp.model.Todo;
+import com.example.todoapp.model.TodoTombstone;
+import jakarta.persistence.EntityManager;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Change sequence, per-row stamps and tombstones behind {@code GET /api/todos/changes}.
+ */
+@Repository
+public class TodoChangeLogRepository {
+
+    private static final String CHANGED_AFTER = """
+            SELECT id, title, description, status, due_date, created_at, updated_at, archived, change_seq
+            FROM todos
+            WHERE (change_seq, id) > (:changeSeq, :id) AND change_seq <= :through
+            ORDER BY change_seq, id
+            LIMIT :limit
+            """;
+
+    private final EntityManager entityManager;
+    private volatile Boolean postgres;
+
+    public TodoChangeLogRepository(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * Takes the calling transaction's sequence value. On Postgres that is its transaction id, which it already holds
+     * once it has written anything, so concurrent writers share no lock; ids are handed out as transactions start
+     * rather than as they commit, which {@link #visibleThrough()} makes up for. Elsewhere a counter row is
+     * incremented and stays locked until the transaction ends, so values become visible in the order they were
+     * handed out.
+     */
+    public long nextValue() {
+        if (isPostgres()) {
+            return longResult("SELECT CAST(CAST(pg_current_xact_id() AS TEXT) AS BIGINT)");
+        }
+        entityManager.createNativeQuery("UPDATE todo_change_sequence SET last_value = last_value + 1 WHERE id = 1")
+                .executeUpdate();
+        return longResult("SELECT last_value FROM todo_change_sequence WHERE id = 1");
+    }
+
+    /**
+     * The newest sequence value the calling transaction may read up to: every change with a value up to it is in its
+     * snapshot, and no transaction still running can commit one. On Postgres that is just below the oldest
+     * transaction still running when the snapshot was taken, so a long transaction holds deltas back until it ends;
+     * elsewhere it is the counter as the snapshot sees it.
+     */
+    public long visibleThrough() {
+        if (isPostgres()) {
+            return longResult("SELECT CAST(CAST(pg_snapshot_xmin(pg_current_snapshot()) AS TEXT) AS BIGINT) - 1");
+        }
+        return longResult("SELECT last_value FROM todo_change_sequence WHERE id = 1");
+    }
+
+    public void stamp(long changeSeq, Collection<UUID> ids) {
+        entityManager.createNativeQuery("UPDATE todos SET change_seq = :changeSeq WHERE id IN (:ids)")
+                .setParameter("changeSeq", changeSeq)
+                .setParameter("ids", ids)
+                .executeUpdate();
+    }
+
+    public void addTombstone(TodoTombstone tombstone) {
+        entityManager.persist(tombstone);
+    }
+
+    public List<ChangedTodo> changedAfter(TodoChangeWatermark after, long through, int limit) {
+        @SuppressWarnings("unchecked")
+        List<Object[]> rows = entityManager.createNativeQuery(CHANGED_AFTER, Todo.WITH_CHANGE_SEQ)
+                .setParameter("changeSeq", after.changeSeq())
+                .setParameter("id", after.id())
+                .setParameter("through", through)
+                .setParameter("limit", limit)
+                .getResultList();
+        return rows.stream()
+                .map(row -> new ChangedTodo((Todo) row[0], ((Number) row[1]).longValue()))
+                .toList();
+    }
+
+    public List<TodoTombstone> tombstonesAfter(TodoChangeWatermark after, long through, int limit) {
+        return entityManager.createQuery("""
+                        SELECT t FROM TodoTombstone t
+                        WHERE (t.changeSeq > :changeSeq OR (t.changeSeq = :changeSeq AND t.id > :id))
+                            AND t.changeSeq <= :through
+                        ORDER BY t.changeSeq, t.id
+                        """, TodoTombstone.class)
+                .setParameter("changeSeq", after.changeSeq())
+                .setParameter("id", after.id())
+                .setParameter("through", through)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    /**
+     * The newest change whose tombstone may already be gone; watermarks before it cannot be synced incrementally.
+     */
+    public long purgedThrough() {
+        return longResult("SELECT purged_through FROM todo_change_sequence WHERE id = 1");
+    }
+
+    public int purgeTombstones(Instant deletedBefore) {
+        Number newest = (Number) entityManager.createNativeQuery(
+                        "SELECT MAX(change_seq) FROM todo_tombstones WHERE deleted_at < :before")
+                .setParameter("before", deletedBefore)
+                .getSingleResult();
+        if (newest == null) {
+            return 0;
+        }
+        entityManager.createNativeQuery("""
+                        UPDATE todo_change_sequence SET purged_through = GREATEST(purged_through, :newest)
+                        WHERE id = 1
+                        """)
+                .setParameter("newest", newest.longValue())
+                .executeUpdate();
+        return entityManager.createQuery("DELETE FROM TodoTombstone t WHERE t.changeSeq <= :newest")
+                .setParameter("newest", newest.longValue())
+                .executeUpdate();
+    }
+
+    private long longResult(String sql) {
+        return ((Number) entityManager.createNativeQuery(sql).getSingleResult()).longValue();
+    }
+
+    private boolean isPostgres() {
+        Boolean result = postgres;
+        if (result == null) {
+            result = Dialects.isPostgres(entityManager);
+            postgres = result;
+        }
+        return result;
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.todoapp.repository;
+
+import com.example.todoapp.exception.BadRequestException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Position in the {@code (changeSeq, id)} ordering of changes, encoded as an opaque URL-safe token.
+ */
+public record TodoChangeWatermark(long changeSeq, UUID id) {
+
+    /**
+     * Before every change, including rows written before change sequences existed.
+     */
+    public static final TodoChangeWatermark START = new TodoChangeWatermark(0, new UUID(0, 0));
+
+    /**
+     * After every change with a sequence value up to and including {@code changeSeq}.
+     */
+    public static TodoChangeWatermark after(long changeSeq) {
+        return new TodoChangeWatermark(changeSeq, new UUID(-1, -1));
+    }
+
+    public static TodoChangeWatermark decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split(":", 2);
+            if (parts.length != 2) {
+                throw new IllegalArgumentException(raw);
+            }
+            return new TodoChangeWatermark(Long.parseLong(parts[0]), UUID.fromString(parts[1]));
+        } catch (IllegalArgumentException ex) {
+            throw new BadRequestException("Invalid watermark");
+        }
+    }
+
+    public String encode() {
+        String raw = changeSeq + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * The database's order: UUIDs compare as unsigned bytes, unlike {@link UUID#compareTo}.
+     */
+    public static int compare(TodoChangeWatermark a, TodoChangeWatermark b) {
+        if (a.changeSeq != b.changeSeq) {
+            return Long.compare(a.changeSeq, b.changeSeq);
+        }
+        int high = Long.compareUnsigned(a.id.getMostSignificantBits(), b.id.getMostSignificantBits());
+        return high != 0 ? high : Long.compareUnsigned(a.id.getLeastSignificantBits(), b.id.getLeastSignificantBits());
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.todoapp.repository;
+
+import com.example.todoapp.model.TodoStatus;
+import jakarta.persistence.EntityManager;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Slotted counters behind {@code /api/todos/stats}, plus the {@code GROUP BY} queries they are checked against.
+ */
+@Repository
+public class TodoCountsRepository {
+
+    private static final String UPSERT_STATUS_POSTGRES = """
+            INSERT INTO todo_status_counts (status, slot, todo_count) VALUES (:key, :slot, :delta)
+            ON CONFLICT (status, slot) DO UPDATE SET todo_count = todo_status_counts.todo_count + EXCLUDED.todo_count
+            """;
+
+    private static final String UPSERT_DUE_DATE_POSTGRES = """
+            INSERT INTO todo_due_date_counts (due_date, slot, todo_count) VALUES (:key, :slot, :delta)
+            ON CONFLICT (due_date, slot) DO UPDATE
+            SET todo_count = todo_due_date_counts.todo_count + EXCLUDED.todo_count
+            """;
+
+    // H2 has no ON CONFLICT ... DO UPDATE.
+    private static final String MERGE_STATUS = """
+            MERGE INTO todo_status_counts c
+            USING (SELECT CAST(:key AS VARCHAR(32)) AS status, CAST(:slot AS INTEGER) AS slot,
+                    CAST(:delta AS BIGINT) AS todo_count) d
+            ON c.status = d.status AND c.slot = d.slot
+            WHEN MATCHED THEN UPDATE SET todo_count = c.todo_count + d.todo_count
+            WHEN NOT MATCHED THEN INSERT (status, slot, todo_count) VALUES (d.status, d.slot, d.todo_count)
+            """;
+
+    private static final String MERGE_DUE_DATE = """
+            MERGE INTO todo_due_date_counts c
+            USING (SELECT CAST(:key AS DATE) AS due_date, CAST(:slot AS INTEGER) AS slot,
+                    CAST(:delta AS BIGINT) AS todo_count) d
+            ON c.due_date = d.due_date AND c.slot = d.slot
+            WHEN MATCHED THEN UPDATE SET todo_count = c.todo_count + d.todo_count
+            WHEN NOT MATCHED THEN INSERT (due_date, slot, todo_count) VALUES (d.due_date, d.slot, d.todo_count)
+            """;
+
+    private final EntityManager entityManager;
+    private volatile Boolean postgres;
+
+    public TodoCountsRepository(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    public void addToStatus(TodoStatus status, int slot, long delta) {
+        upsert(isPostgres() ? UPSERT_STATUS_POSTGRES : MERGE_STATUS, status.name(), slot, delta);
+    }
+
+    public void addToDueDate(LocalDate dueDate, int slot, long delta) {
+        upsert(isPostgres() ? UPSERT_DUE_DATE_POSTGRES : MERGE_DUE_DATE, dueDate, slot, delta);
+    }
+
+    public Map<TodoStatus, Long> statusCounts() {
+        return byStatus("SELECT status, SUM(todo_count) FROM todo_status_counts GROUP BY status");
+    }
+
+    public long openDueBetween(LocalDate from, LocalDate to) {
+        Number sum = (Number) entityManager.createNativeQuery("""
+                        SELECT COALESCE(SUM(todo_count), 0) FROM todo_due_date_counts
+                        WHERE due_date >= :from AND due_date <= :to
+                        """)
+                .setParameter("from", from)
+                .setParameter("to", to)
+                .getSingleResult();
+        return sum.longValue();
+    }
+
+    public long openDueBefore(LocalDate date) {
+        Number sum = (Number) entityManager.createNativeQuery(
+                        "SELECT COALESCE(SUM(todo_count), 0) FROM todo_due_date_counts WHERE due_date < :date")
+                .setParameter("date", date)
+                .getSingleResult();
+        return sum.longValue();
+    }
+
+    public Map<LocalDate, Long> dueDateCounts() {
+        return byDueDate("SELECT due_date, SUM(todo_count) FROM todo_due_date_counts GROUP BY due_date");
+    }
+
+    public Map<TodoStatus, Long> countTodosByStatus() {
+        return byStatus("SELECT status, COUNT(*) FROM todos GROUP BY status");
+    }
+
+    public Map<LocalDate, Long> countOpenTodosByDueDate() {
+        return byDueDate("""
+                SELECT due_date, COUNT(*) FROM todos
+                WHERE status <> 'DONE' AND due_date IS NOT NULL
+                GROUP BY due_date
+                """);
+    }
+
+    /**
+     * Drops counter rows that have gone back to zero, mostly slots for due dates that are now empty.
+     */
+    public int deleteEmpty() {
+        return entityManager.createNativeQuery("DELETE FROM todo_status_counts WHERE todo_count = 0").executeUpdate()
+                + entityManager.createNativeQuery("DELETE FROM todo_due_date_counts WHERE todo_count = 0")
+                        .executeUpdate();
+    }
+
+    private void upsert(String sql, Object key, int slot, long delta) {
+        entityManager.createNativeQuery(sql)
+                .setParameter("key", key)
+                .setParameter("slot", slot)
+                .setParameter("delta", delta)
+                .executeUpdate();
+    }
+
+    private Map<TodoStatus, Long> byStatus(String sql) {
+        Map<TodoStatus, Long> counts = new EnumMap<>(TodoStatus.class);
+        for (Object[] row : rows(sql)) {
+            counts.put(TodoStatus.valueOf((String) row[0]), ((Number) row[1]).longValue());
+        }
+        return counts;
+    }
+
+    private Map<LocalDate, Long> byDueDate(String sql) {
+        Map<LocalDate, Long> counts = new TreeMap<>();
+        for (Object[] row : rows(sql)) {
+            counts.put(((Date) row[0]).toLocalDate(), ((Number) row[1]).longValue());
+        }
+        return counts;
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Object[]> rows(String sql) {
+        return entityManager.createNativeQuery(sql).getResultList();
+    }
+
+    private boolean isPostgres() {
+        Boolean result = postgres;
+        if (result == null) {
+            result = Dialects.isPostgres(entityManager);
+            postgres = result;
+        }
+        return result;
+    }
+}
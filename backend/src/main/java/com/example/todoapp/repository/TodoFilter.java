@@ -0,0 +1,25 @@
+package com.example.todoapp.repository;
+
+import com.example.todoapp.model.TodoStatus;
+import java.time.LocalDate;
+
+/**
+ * Criteria for list queries. Archived todos are left out unless {@code includeArchived} is set, which on Postgres
+ * keeps the query on the hot partition.
+ */
+public record TodoFilter(TodoStatus status, LocalDate fromDate, LocalDate toDate, boolean includeArchived) {
+
+    public TodoFilter(TodoStatus status, LocalDate fromDate, LocalDate toDate) {
+        this(status, fromDate, toDate, false);
+    }
+
+    public boolean matches(TodoStatus todoStatus, LocalDate dueDate) {
+        if (status != null && status != todoStatus) {
+            return false;
+        }
+        if (fromDate != null && (dueDate == null || dueDate.isBefore(fromDate))) {
+            return false;
+        }
+        return toDate == null || (dueDate != null && !dueDate.isAfter(toDate));
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.todoapp.repository;
+
+import java.time.Instant;
+
+/**
+ * Aggregate fingerprint of a filtered list: any insert, update or delete in the filter changes the pair.
+ */
+public record TodoListVersion(long count, Instant maxUpdatedAt) {
+}
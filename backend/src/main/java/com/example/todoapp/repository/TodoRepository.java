@@ -1,25 +1,25 @@
 package com.example.todoapp.repository;
 
 import com.example.todoapp.model.Todo;
-import com.example.todoapp.model.TodoStatus;
-import java.time.LocalDate;
+import jakarta.persistence.LockModeType;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
-public interface TodoRepository extends JpaRepository<Todo, UUID> {
+public interface TodoRepository extends JpaRepository<Todo, UUID>, TodoRepositoryCustom {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT t FROM Todo t WHERE t.id = :id")
+    Optional<Todo> findForUpdate(@Param("id") UUID id);
 
     @Query("""
-            SELECT t FROM Todo t
-            WHERE (:status IS NULL OR t.status = :status)
-              AND (:fromDate IS NULL OR t.dueDate >= :fromDate)
-              AND (:toDate IS NULL OR t.dueDate <= :toDate)
-            ORDER BY t.createdAt DESC
+            SELECT new com.example.todoapp.repository.DueTodo(t.id, t.title, t.status, t.dueDate)
+            FROM Todo t
+            WHERE t.dueDate IS NOT NULL AND t.status <> com.example.todoapp.model.TodoStatus.DONE
             """)
-    List<Todo> search(
-            @Param("status") TodoStatus status,
-            @Param("fromDate") LocalDate fromDate,
-            @Param("toDate") LocalDate toDate);
+    List<DueTodo> findAllDue();
 }
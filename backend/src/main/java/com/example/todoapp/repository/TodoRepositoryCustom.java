@@ -0,0 +1,66 @@
+package com.example.todoapp.repository;
+
+import com.example.todoapp.model.Todo;
+import com.example.todoapp.model.TodoStatus;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Filtered reads are built per call and only carry the predicates the filter actually sets, so each
+ * combination gets its own statement and plan instead of one catch-all query the planner cannot specialise.
+ */
+public interface TodoRepositoryCustom {
+
+    /**
+     * All matching todos, newest first.
+     */
+    List<Todo> search(TodoFilter filter);
+
+    /**
+     * Like {@link #search} but reads summaries with at most {@code descriptionLength} characters of description.
+     */
+    List<TodoSummary> searchSummaries(TodoFilter filter, int descriptionLength);
+
+    /**
+     * Row count and latest updatedAt of the matching todos.
+     */
+    TodoListVersion searchVersion(TodoFilter filter);
+
+    /**
+     * Up to {@code limit} matching todos in {@code (createdAt DESC, id)} order, starting after {@code after}
+     * or from the beginning when it is null.
+     */
+    List<Todo> searchPage(TodoFilter filter, TodoCursor after, int limit);
+
+    /**
+     * Streams matching todos in {@code (createdAt DESC, id)} order as read-only entities; close the stream when done.
+     */
+    Stream<Todo> streamAll(TodoFilter filter);
+
+    /**
+     * Matching todos whose title or description contain {@code text}, best match first. Uses the full-text index
+     * on Postgres and a case-insensitive substring match elsewhere.
+     */
+    List<Todo> searchText(TodoFilter filter, String text, int limit, int offset);
+
+    /**
+     * Sets status and updatedAt without loading the entity first and returns the updated row with the status it
+     * replaced, or empty when no row has the given id.
+     */
+    Optional<TodoStatusUpdate> updateStatusReturning(UUID id, TodoStatus status, Instant updatedAt);
+
+    /**
+     * Deletes the todos with the given ids and returns the state of the rows actually removed.
+     */
+    List<TodoState> deleteAllReturning(Collection<UUID> ids);
+
+    /**
+     * Archives up to {@code limit} DONE todos last updated before {@code updatedBefore} and returns how many were
+     * archived. On Postgres rows locked by other transactions are skipped rather than waited for.
+     */
+    int archiveDone(Instant updatedBefore, int limit);
+}
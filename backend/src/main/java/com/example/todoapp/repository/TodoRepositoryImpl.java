@@ -0,0 +1,302 @@
+package com.example.todoapp.repository;
+
+import com.example.todoapp.model.Todo;
+import com.example.todoapp.model.TodoStatus;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.Query;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import java.sql.Date;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Stream;
+import org.hibernate.jpa.HibernateHints;
+
+class TodoRepositoryImpl implements TodoRepositoryCustom {
+
+    // The CTE locks the row before reading it, so the previous status cannot be overtaken by a concurrent update.
+    private static final String UPDATE_STATUS_RETURNING = """
+            WITH previous AS (
+                SELECT id, status FROM todos WHERE id = :id FOR UPDATE
+            )
+            UPDATE todos t SET status = :status, updated_at = :updatedAt,
+                archived = t.archived AND :status = 'DONE'
+            FROM previous
+            WHERE t.id = previous.id
+            RETURNING t.id, t.title, t.description, t.status, t.due_date, t.created_at, t.updated_at, t.archived,
+                previous.status AS previous_status
+            """;
+
+    private static final String DELETE_RETURNING = """
+            DELETE FROM todos WHERE id IN (:ids)
+            RETURNING id, status, due_date
+            """;
+
+    private static final String SEARCH_TEXT = """
+            SELECT id, title, description, status, due_date, created_at, updated_at, archived
+            FROM todos, websearch_to_tsquery('english', :text) query
+            WHERE search_vector @@ query%s
+            ORDER BY ts_rank(search_vector, query) DESC, created_at DESC, id
+            LIMIT :limit OFFSET :offset
+            """;
+
+    // Archiving changes the partition key, so on Postgres each row is moved from todos_hot to todos_archived.
+    private static final String ARCHIVE_DONE = """
+            UPDATE todos SET archived = TRUE
+            WHERE NOT archived AND id IN (
+                SELECT id FROM todos
+                WHERE NOT archived AND status = 'DONE' AND updated_at < :updatedBefore
+                LIMIT :limit%s
+            )
+            """;
+
+    private final EntityManager entityManager;
+    private volatile Boolean postgres;
+
+    TodoRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public List<Todo> search(TodoFilter filter) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Todo> query = cb.createQuery(Todo.class);
+        Root<Todo> todo = query.from(Todo.class);
+        query.where(predicates(cb, todo, filter).toArray(Predicate[]::new))
+                .orderBy(cb.desc(todo.get("createdAt")));
+        return entityManager.createQuery(query).getResultList();
+    }
+
+    @Override
+    public List<TodoSummary> searchSummaries(TodoFilter filter, int descriptionLength) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<TodoSummary> query = cb.createQuery(TodoSummary.class);
+        Root<Todo> todo = query.from(Todo.class);
+        Expression<String> description = todo.get("description");
+        query.select(cb.construct(TodoSummary.class,
+                        todo.get("id"),
+                        todo.get("title"),
+                        cb.substring(description, 1, descriptionLength),
+                        cb.length(description),
+                        todo.get("status"),
+                        todo.get("dueDate"),
+                        todo.get("createdAt"),
+                        todo.get("updatedAt")))
+                .where(predicates(cb, todo, filter).toArray(Predicate[]::new))
+                .orderBy(cb.desc(todo.get("createdAt")));
+        return entityManager.createQuery(query).getResultList();
+    }
+
+    @Override
+    public TodoListVersion searchVersion(TodoFilter filter) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<TodoListVersion> query = cb.createQuery(TodoListVersion.class);
+        Root<Todo> todo = query.from(Todo.class);
+        query.select(cb.construct(TodoListVersion.class, cb.count(todo), cb.greatest(todo.<Instant>get("updatedAt"))))
+                .where(predicates(cb, todo, filter).toArray(Predicate[]::new));
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    @Override
+    public List<Todo> searchPage(TodoFilter filter, TodoCursor after, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Todo> query = cb.createQuery(Todo.class);
+        Root<Todo> todo = query.from(Todo.class);
+        List<Predicate> predicates = predicates(cb, todo, filter);
+        if (after != null) {
+            predicates.add(cb.or(
+                    cb.lessThan(todo.get("createdAt"), after.createdAt()),
+                    cb.and(
+                            cb.equal(todo.get("createdAt"), after.createdAt()),
+                            cb.greaterThan(todo.get("id"), after.id()))));
+        }
+        query.where(predicates.toArray(Predicate[]::new))
+                .orderBy(cb.desc(todo.get("createdAt")), cb.asc(todo.get("id")));
+        return entityManager.createQuery(query).setMaxResults(limit).getResultList();
+    }
+
+    @Override
+    public Stream<Todo> streamAll(TodoFilter filter) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Todo> query = cb.createQuery(Todo.class);
+        Root<Todo> todo = query.from(Todo.class);
+        query.where(predicates(cb, todo, filter).toArray(Predicate[]::new))
+                .orderBy(cb.desc(todo.get("createdAt")), cb.asc(todo.get("id")));
+        return entityManager.createQuery(query)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, 500)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+
+    @Override
+    public List<Todo> searchText(TodoFilter filter, String text, int limit, int offset) {
+        if (isPostgres()) {
+            StringBuilder where = new StringBuilder();
+            if (!filter.includeArchived()) {
+                where.append(" AND NOT archived");
+            }
+            if (filter.status() != null) {
+                where.append(" AND status = :status");
+            }
+            if (filter.fromDate() != null) {
+                where.append(" AND due_date >= :fromDate");
+            }
+            if (filter.toDate() != null) {
+                where.append(" AND due_date <= :toDate");
+            }
+            Query query = entityManager.createNativeQuery(SEARCH_TEXT.formatted(where), Todo.class)
+                    .setParameter("text", text)
+                    .setParameter("limit", limit)
+                    .setParameter("offset", offset);
+            if (filter.status() != null) {
+                query.setParameter("status", filter.status().name());
+            }
+            if (filter.fromDate() != null) {
+                query.setParameter("fromDate", filter.fromDate());
+            }
+            if (filter.toDate() != null) {
+                query.setParameter("toDate", filter.toDate());
+            }
+            @SuppressWarnings("unchecked")
+            List<Todo> rows = query.getResultList();
+            return rows;
+        }
+        // Fallback for databases without text search: every term must appear in the title or description, and
+        // todos matching in the title come first.
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Todo> query = cb.createQuery(Todo.class);
+        Root<Todo> todo = query.from(Todo.class);
+        Expression<String> title = cb.lower(todo.get("title"));
+        Expression<String> description = cb.lower(todo.get("description"));
+        List<Predicate> predicates = predicates(cb, todo, filter);
+        Predicate inTitle = cb.conjunction();
+        for (String term : text.toLowerCase(Locale.ROOT).split("\\s+")) {
+            if (term.isEmpty()) {
+                continue;
+            }
+            String pattern = "%" + term.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+            predicates.add(cb.or(cb.like(title, pattern, '\\'), cb.like(description, pattern, '\\')));
+            inTitle = cb.and(inTitle, cb.like(title, pattern, '\\'));
+        }
+        query.where(predicates.toArray(Predicate[]::new))
+                .orderBy(
+                        cb.asc(cb.selectCase().when(inTitle, 0).otherwise(1)),
+                        cb.desc(todo.get("createdAt")),
+                        cb.asc(todo.get("id")));
+        return entityManager.createQuery(query)
+                .setFirstResult(offset)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public Optional<TodoStatusUpdate> updateStatusReturning(UUID id, TodoStatus status, Instant updatedAt) {
+        // Like @Modifying(flushAutomatically, clearAutomatically): pending changes go out first and no stale
+        // managed copy can shadow the row the statement returns.
+        entityManager.flush();
+        entityManager.clear();
+        if (isPostgres()) {
+            @SuppressWarnings("unchecked")
+            List<Object[]> rows = entityManager.createNativeQuery(UPDATE_STATUS_RETURNING, Todo.WITH_PREVIOUS_STATUS)
+                    .setParameter("status", status.name())
+                    .setParameter("updatedAt", updatedAt)
+                    .setParameter("id", id)
+                    .getResultList();
+            return rows.stream()
+                    .findFirst()
+                    .map(row -> new TodoStatusUpdate((Todo) row[0], TodoStatus.valueOf((String) row[1])));
+        }
+        List<TodoStatus> previous = entityManager
+                .createQuery("SELECT t.status FROM Todo t WHERE t.id = :id", TodoStatus.class)
+                .setParameter("id", id)
+                .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                .getResultList();
+        if (previous.isEmpty()) {
+            return Optional.empty();
+        }
+        // Reopening an archived todo brings it back to the hot list, as Todo.setStatus does.
+        String unarchive = status == TodoStatus.DONE ? "" : ", t.archived = false";
+        entityManager.createQuery(
+                        "UPDATE Todo t SET t.status = :status, t.updatedAt = :updatedAt" + unarchive + " WHERE t.id = :id")
+                .setParameter("status", status)
+                .setParameter("updatedAt", updatedAt)
+                .setParameter("id", id)
+                .executeUpdate();
+        return Optional.of(new TodoStatusUpdate(entityManager.find(Todo.class, id), previous.getFirst()));
+    }
+
+    @Override
+    public List<TodoState> deleteAllReturning(Collection<UUID> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        entityManager.flush();
+        entityManager.clear();
+        if (isPostgres()) {
+            @SuppressWarnings("unchecked")
+            List<Object[]> rows = entityManager.createNativeQuery(DELETE_RETURNING)
+                    .setParameter("ids", ids)
+                    .getResultList();
+            return rows.stream()
+                    .map(row -> new TodoState(
+                            (UUID) row[0],
+                            TodoStatus.valueOf((String) row[1]),
+                            row[2] == null ? null : ((Date) row[2]).toLocalDate()))
+                    .toList();
+        }
+        List<TodoState> deleted = entityManager.createQuery("""
+                        SELECT new com.example.todoapp.repository.TodoState(t.id, t.status, t.dueDate)
+                        FROM Todo t WHERE t.id IN :ids
+                        """, TodoState.class)
+                .setParameter("ids", ids)
+                .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                .getResultList();
+        entityManager.createQuery("DELETE FROM Todo t WHERE t.id IN :ids")
+                .setParameter("ids", ids)
+                .executeUpdate();
+        return deleted;
+    }
+
+    @Override
+    public int archiveDone(Instant updatedBefore, int limit) {
+        return entityManager.createNativeQuery(ARCHIVE_DONE.formatted(isPostgres() ? " FOR UPDATE SKIP LOCKED" : ""))
+                .setParameter("updatedBefore", updatedBefore)
+                .setParameter("limit", limit)
+                .executeUpdate();
+    }
+
+    private static List<Predicate> predicates(CriteriaBuilder cb, Root<Todo> todo, TodoFilter filter) {
+        List<Predicate> predicates = new ArrayList<>(5);
+        if (!filter.includeArchived()) {
+            predicates.add(cb.isFalse(todo.get("archived")));
+        }
+        if (filter.status() != null) {
+            predicates.add(cb.equal(todo.get("status"), filter.status()));
+        }
+        if (filter.fromDate() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(todo.get("dueDate"), filter.fromDate()));
+        }
+        if (filter.toDate() != null) {
+            predicates.add(cb.lessThanOrEqualTo(todo.get("dueDate"), filter.toDate()));
+        }
+        return predicates;
+    }
+
+    private boolean isPostgres() {
+        Boolean result = postgres;
+        if (result == null) {
+            result = Dialects.isPostgres(entityManager);
+            postgres = result;
+        }
+        return result;
+    }
+}
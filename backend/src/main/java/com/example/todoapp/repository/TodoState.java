@@ -0,0 +1,16 @@
+package com.example.todoapp.repository;
+
+import com.example.todoapp.model.Todo;
+import com.example.todoapp.model.TodoStatus;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * The columns the aggregate counters are keyed on, as they were before or after a write.
+ */
+public record TodoState(UUID id, TodoStatus status, LocalDate dueDate) {
+
+    public static TodoState of(Todo todo) {
+        return new TodoState(todo.getId(), todo.getStatus(), todo.getDueDate());
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.todoapp.repository;
+
+import com.example.todoapp.model.Todo;
+import com.example.todoapp.model.TodoStatus;
+
+/**
+ * Row returned by a status update together with the status it replaced.
+ */
+public record TodoStatusUpdate(Todo todo, TodoStatus previousStatus) {
+}
@@ -0,0 +1,36 @@
+package com.example.todoapp.repository;
+
+import com.example.todoapp.model.TodoStatus;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * List row read straight into a DTO, never as a managed entity; {@code description} may be cut short, in which
+ * case {@code descriptionTruncated} is set.
+ */
+public record TodoSummary(
+        UUID id,
+        String title,
+        String description,
+        boolean descriptionTruncated,
+        TodoStatus status,
+        LocalDate dueDate,
+        Instant createdAt,
+        Instant updatedAt) {
+
+    // Target of the constructor expression: the database sends the prefix and the full length only.
+    public TodoSummary(
+            UUID id,
+            String title,
+            String description,
+            Integer descriptionLength,
+            TodoStatus status,
+            LocalDate dueDate,
+            Instant createdAt,
+            Instant updatedAt) {
+        this(id, title, description,
+                description != null && descriptionLength != null && descriptionLength > description.length(),
+                status, dueDate, createdAt, updatedAt);
+    }
+}
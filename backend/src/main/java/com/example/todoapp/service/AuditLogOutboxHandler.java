@@ -0,0 +1,21 @@
+package com.example.todoapp.service;
+
+import com.example.todoapp.model.OutboxEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Writes every todo change to the {@code todo.audit} logger.
+ */
+@Component
+public class AuditLogOutboxHandler implements OutboxEventHandler {
+
+    private static final Logger AUDIT = LoggerFactory.getLogger("todo.audit");
+
+    @Override
+    public void handle(OutboxEvent event) {
+        AUDIT.info("{} {} at {}: {}", event.getEventType(), event.getAggregateId(), event.getCreatedAt(),
+                event.getPayload());
+    }
+}
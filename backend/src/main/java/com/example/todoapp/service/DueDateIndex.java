@@ -0,0 +1,208 @@
+package com.example.todoapp.service;
+
+import com.example.todoapp.api.dto.TodoChangesResponse;
+import com.example.todoapp.api.dto.TodoResponse;
+import com.example.todoapp.exception.BadRequestException;
+import com.example.todoapp.exception.GoneException;
+import com.example.todoapp.model.TodoStatus;
+import com.example.todoapp.repository.DueTodo;
+import com.example.todoapp.repository.TodoChangeLogRepository;
+import com.example.todoapp.repository.TodoChangeWatermark;
+import com.example.todoapp.repository.TodoRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Open todos with a due date, bucketed by day in date order, so due-soon queries and the overdue scheduler read
+ * memory instead of scanning the table.
+ *
+ * <p>The index is loaded once before the application reports ready, together with the change sequence value its
+ * snapshot reflects. From then on it follows {@link TodoChangeLog}: each committed write on this replica triggers a
+ * delta read right away, and a periodic poll picks up writes made by other replicas. All updates are applied by one
+ * thread in change sequence order, so a slower read can never put back a state a newer one replaced.
+ */
+@Component
+public class DueDateIndex implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(DueDateIndex.class);
+    private static final int DELTA_PAGE_SIZE = TodoService.MAX_PAGE_SIZE;
+
+    private final ConcurrentSkipListMap<LocalDate, Map<UUID, DueTodo>> buckets = new ConcurrentSkipListMap<>();
+    private final Map<UUID, LocalDate> dueDates = new ConcurrentHashMap<>();
+    private final TodoRepository repository;
+    private final TodoChangeLogRepository changeLogRepository;
+    private final TodoChangeLog changeLog;
+    private final TransactionTemplate snapshots;
+    private final ExecutorService refresher = Executors.newSingleThreadExecutor(
+            Thread.ofPlatform().name("todo-due-index").daemon().factory());
+    private final AtomicBoolean refreshPending = new AtomicBoolean();
+    private volatile TodoChangeWatermark watermark;
+
+    public DueDateIndex(
+            TodoRepository repository,
+            TodoChangeLogRepository changeLogRepository,
+            TodoChangeLog changeLog,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry) {
+        this.repository = repository;
+        this.changeLogRepository = changeLogRepository;
+        this.changeLog = changeLog;
+        // The rows and the sequence value they reflect must come from the same snapshot.
+        this.snapshots = new TransactionTemplate(transactionManager);
+        this.snapshots.setReadOnly(true);
+        this.snapshots.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        Gauge.builder("todo.due.indexed", dueDates, Map::size)
+                .description("Open todos with a due date held in the due date index")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        refresh();
+    }
+
+    /**
+     * Open todos due on or before {@code until}, earliest first; overdue ones are included.
+     */
+    public List<DueTodo> dueBy(LocalDate until, int limit) {
+        if (limit < 1 || limit > TodoService.MAX_PAGE_SIZE) {
+            throw new BadRequestException("limit must be between 1 and " + TodoService.MAX_PAGE_SIZE);
+        }
+        List<DueTodo> due = new ArrayList<>();
+        for (Map<UUID, DueTodo> bucket : buckets.headMap(until, true).values()) {
+            bucket.values().stream()
+                    .sorted(Comparator.comparing(DueTodo::id))
+                    .limit(limit - due.size())
+                    .forEach(due::add);
+            if (due.size() == limit) {
+                break;
+            }
+        }
+        return due;
+    }
+
+    /**
+     * Ids of the open todos due on {@code date}.
+     */
+    public Set<UUID> dueOn(LocalDate date) {
+        Map<UUID, DueTodo> bucket = buckets.get(date);
+        return bucket == null ? Set.of() : Set.copyOf(bucket.keySet());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onChange(TodoChangedEvent event) {
+        refreshSoon();
+    }
+
+    // Catches writes made through other replicas.
+    @Scheduled(fixedDelayString = "${todo.due.poll-interval:PT5S}",
+            initialDelayString = "${todo.due.poll-interval:PT5S}")
+    public void poll() {
+        refreshSoon();
+    }
+
+    /**
+     * Brings the index up to date with every change committed so far, loading it first if it never was.
+     */
+    public synchronized void refresh() {
+        try {
+            if (watermark != null) {
+                try {
+                    catchUp();
+                    return;
+                } catch (GoneException ex) {
+                    // Deletes since the watermark have been compacted away; only a full load is complete again.
+                    log.info("Due date index fell behind the change log retention; reloading");
+                }
+            }
+            load();
+        } catch (RuntimeException ex) {
+            log.warn("Could not refresh the due date index; retrying on the next change or poll", ex);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        refresher.shutdownNow();
+    }
+
+    private void refreshSoon() {
+        // One queued refresh covers every change committed before it runs.
+        if (refreshPending.compareAndSet(false, true)) {
+            refresher.execute(() -> {
+                refreshPending.set(false);
+                refresh();
+            });
+        }
+    }
+
+    private void load() {
+        Loaded loaded = snapshots.execute(status ->
+                new Loaded(repository.findAllDue(), changeLogRepository.visibleThrough()));
+        buckets.clear();
+        dueDates.clear();
+        loaded.due().forEach(this::put);
+        watermark = TodoChangeWatermark.after(loaded.changeSeq());
+        log.info("Loaded {} open todos with a due date into the due date index", loaded.due().size());
+    }
+
+    private void catchUp() {
+        TodoChangesResponse changes;
+        do {
+            changes = changeLog.since(watermark.encode(), DELTA_PAGE_SIZE);
+            changes.getUpserted().forEach(this::apply);
+            changes.getDeleted().forEach(this::remove);
+            watermark = TodoChangeWatermark.decode(changes.getWatermark());
+        } while (changes.isHasMore());
+    }
+
+    private void apply(TodoResponse todo) {
+        if (todo.getDueDate() == null || todo.getStatus() == TodoStatus.DONE) {
+            remove(todo.getId());
+        } else {
+            put(new DueTodo(todo.getId(), todo.getTitle(), todo.getStatus(), todo.getDueDate()));
+        }
+    }
+
+    private void put(DueTodo todo) {
+        remove(todo.id());
+        buckets.computeIfAbsent(todo.dueDate(), date -> new ConcurrentHashMap<>()).put(todo.id(), todo);
+        dueDates.put(todo.id(), todo.dueDate());
+    }
+
+    private void remove(UUID id) {
+        LocalDate dueDate = dueDates.remove(id);
+        if (dueDate != null) {
+            buckets.computeIfPresent(dueDate, (date, bucket) -> {
+                bucket.remove(id);
+                return bucket.isEmpty() ? null : bucket;
+            });
+        }
+    }
+
+    private record Loaded(List<DueTodo> due, long changeSeq) {
+    }
+}
@@ -0,0 +1,266 @@
+package com.example.todoapp.service;
+
+import com.example.todoapp.exception.ConflictException;
+import com.example.todoapp.exception.UnprocessableEntityException;
+import com.example.todoapp.model.IdempotencyRecord;
+import com.example.todoapp.model.Todo;
+import com.example.todoapp.repository.IdempotencyRecordRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Dedupe store for requests sent with an {@code Idempotency-Key}.
+ *
+ * <p>Completed responses live in the {@code idempotency_keys} table for {@code ttl}, with a bounded in-memory cache
+ * in front. The first request for a key inserts an in-progress claim; duplicates arriving on the same instance wait
+ * for its outcome, and duplicates on other instances poll the row, so only one of them ever reaches the service.
+ * A claim whose owner died is taken over once its {@code claim-timeout} lease expires.
+ */
+@Component
+public class IdempotencyService {
+
+    private static final Logger log = LoggerFactory.getLogger(IdempotencyService.class);
+    private static final Duration POLL_INTERVAL = Duration.ofMillis(100);
+    private static final Duration RETRY_AFTER = Duration.ofSeconds(1);
+
+    private final IdempotencyRecordRepository repository;
+    private final TransactionTemplate transactions;
+    private final Cache<String, StoredResponse> completed;
+    private final ConcurrentHashMap<String, InFlight> inFlight = new ConcurrentHashMap<>();
+    private final Duration ttl;
+    private final Duration claimTimeout;
+    private final Duration waitTimeout;
+    private final MeterRegistry meterRegistry;
+
+    public IdempotencyService(
+            IdempotencyRecordRepository repository,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${todo.idempotency.ttl:24h}") Duration ttl,
+            @Value("${todo.idempotency.claim-timeout:1m}") Duration claimTimeout,
+            @Value("${todo.idempotency.wait-timeout:10s}") Duration waitTimeout,
+            @Value("${todo.idempotency.cache.max-size:10000}") long cacheMaxSize) {
+        this.repository = repository;
+        // Claims must be visible to other instances before the request itself runs.
+        this.transactions = new TransactionTemplate(transactionManager);
+        this.transactions.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.completed = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.ttl = ttl;
+        this.claimTimeout = claimTimeout;
+        this.waitTimeout = waitTimeout;
+        this.meterRegistry = meterRegistry;
+        CaffeineCacheMetrics.monitor(meterRegistry, completed, "todo.idempotency");
+    }
+
+    /**
+     * Claims the key for a new request, or returns the response stored for an earlier one with the same key.
+     *
+     * @return the response to replay, or empty when the caller owns the key and must finish with
+     *         {@link #complete} or {@link #abandon}
+     * @throws UnprocessableEntityException if the key was used for a different request
+     * @throws ConflictException if another request with the key is still running after {@code wait-timeout}
+     */
+    public Optional<StoredResponse> begin(String key, String fingerprint) {
+        long deadline = System.nanoTime() + waitTimeout.toNanos();
+        while (true) {
+            StoredResponse cached = completed.getIfPresent(key);
+            if (cached != null) {
+                return Optional.of(replay(cached, fingerprint));
+            }
+            InFlight mine = new InFlight(fingerprint, new CompletableFuture<>());
+            InFlight running = inFlight.putIfAbsent(key, mine);
+            if (running != null) {
+                checkFingerprint(running.fingerprint(), fingerprint);
+                StoredResponse response = await(running, deadline);
+                if (response != null) {
+                    return Optional.of(replay(response, fingerprint));
+                }
+                // The owner gave up without a response; compete for the key again.
+                continue;
+            }
+            try {
+                Optional<StoredResponse> stored = claimOrPoll(key, fingerprint, deadline);
+                if (stored.isEmpty()) {
+                    count("claimed");
+                    return stored;
+                }
+                completed.put(key, stored.get());
+                finish(key, mine, stored.get());
+                return Optional.of(replay(stored.get(), fingerprint));
+            } catch (RuntimeException ex) {
+                finish(key, mine, null);
+                throw ex;
+            }
+        }
+    }
+
+    /**
+     * Stores the response of a request that owns the key and releases any duplicates waiting for it.
+     */
+    public void complete(String key, StoredResponse response) {
+        try {
+            transactions.executeWithoutResult(status -> repository.findById(key).ifPresent(record -> record.complete(
+                    response.status(),
+                    response.contentType(),
+                    response.etag(),
+                    response.location(),
+                    response.body(),
+                    Todo.now().plus(ttl))));
+            completed.put(key, response);
+        } finally {
+            InFlight mine = inFlight.get(key);
+            if (mine != null) {
+                finish(key, mine, response);
+            }
+        }
+    }
+
+    /**
+     * Releases the key without storing a response, so a retry runs the request again.
+     */
+    public void abandon(String key) {
+        try {
+            transactions.executeWithoutResult(status -> repository.release(key));
+        } finally {
+            InFlight mine = inFlight.get(key);
+            if (mine != null) {
+                finish(key, mine, null);
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${todo.idempotency.sweep-interval:PT10M}",
+            initialDelayString = "${todo.idempotency.sweep-interval:PT10M}")
+    public void sweep() {
+        int deleted = transactions.execute(status -> repository.deleteExpired(Todo.now()));
+        if (deleted > 0) {
+            log.debug("Removed {} expired idempotency keys", deleted);
+        }
+    }
+
+    private Optional<StoredResponse> claimOrPoll(String key, String fingerprint, long deadline) {
+        while (true) {
+            Instant now = Todo.now();
+            // Read in the same transaction: a read-only one may be served by a replica that has not seen the row.
+            Claim claim = transactions.execute(status -> {
+                repository.deleteIfExpired(key, now);
+                if (repository.claim(key, fingerprint, now, now.plus(claimTimeout)) == 1) {
+                    return new Claim(true, Optional.empty());
+                }
+                return new Claim(false, repository.findById(key));
+            });
+            if (claim.claimed()) {
+                return Optional.empty();
+            }
+            if (claim.existing().isEmpty()) {
+                // Released between our insert and read; try to claim it again.
+                continue;
+            }
+            IdempotencyRecord record = claim.existing().get();
+            checkFingerprint(record.getFingerprint(), fingerprint);
+            if (record.getCompletedAt() != null) {
+                return Optional.of(StoredResponse.of(record));
+            }
+            if (System.nanoTime() >= deadline) {
+                throw conflict();
+            }
+            sleep(POLL_INTERVAL);
+        }
+    }
+
+    private StoredResponse await(InFlight running, long deadline) {
+        try {
+            return running.response().get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException ex) {
+            throw conflict();
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw conflict();
+        } catch (ExecutionException ex) {
+            return null;
+        }
+    }
+
+    private void finish(String key, InFlight mine, StoredResponse response) {
+        inFlight.remove(key, mine);
+        mine.response().complete(response);
+    }
+
+    private StoredResponse replay(StoredResponse response, String fingerprint) {
+        checkFingerprint(response.fingerprint(), fingerprint);
+        count("replayed");
+        return response;
+    }
+
+    private void checkFingerprint(String expected, String actual) {
+        if (!expected.equals(actual)) {
+            count("mismatch");
+            throw new UnprocessableEntityException("Idempotency-Key was already used for a different request");
+        }
+    }
+
+    private ConflictException conflict() {
+        count("conflict");
+        return new ConflictException("A request with this Idempotency-Key is still in progress", RETRY_AFTER);
+    }
+
+    private void count(String outcome) {
+        meterRegistry.counter("todo.idempotency.requests", "outcome", outcome).increment();
+    }
+
+    private static void sleep(Duration duration) {
+        try {
+            Thread.sleep(duration);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new ConflictException("Interrupted while waiting for a duplicate request", RETRY_AFTER);
+        }
+    }
+
+    private record Claim(boolean claimed, Optional<IdempotencyRecord> existing) {
+    }
+
+    private record InFlight(String fingerprint, CompletableFuture<StoredResponse> response) {
+    }
+
+    public record StoredResponse(
+            String fingerprint,
+            int status,
+            String contentType,
+            String etag,
+            String location,
+            byte[] body) {
+
+        static StoredResponse of(IdempotencyRecord record) {
+            return new StoredResponse(
+                    record.getFingerprint(),
+                    record.getResponseStatus(),
+                    record.getResponseContentType(),
+                    record.getResponseEtag(),
+                    record.getResponseLocation(),
+                    record.getResponseBody());
+        }
+    }
+}
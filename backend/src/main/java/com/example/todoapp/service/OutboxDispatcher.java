@@ -0,0 +1,151 @@
+package com.example.todoapp.service;
+
+import com.example.todoapp.model.OutboxEvent;
+import com.example.todoapp.model.Todo;
+import com.example.todoapp.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.Timer;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Drains the outbox in batches. Each batch is claimed, handled and settled in one transaction, and the row locks
+ * taken by the claim keep other replicas off those events until it commits.
+ */
+@Component
+public class OutboxDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(OutboxDispatcher.class);
+
+    private final OutboxEventRepository repository;
+    private final List<OutboxEventHandler> handlers;
+    private final TransactionTemplate transactions;
+    private final boolean enabled;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final Timer lag;
+    private final Counter delivered;
+    private final Counter retried;
+    private final Counter failed;
+
+    public OutboxDispatcher(
+            OutboxEventRepository repository,
+            List<OutboxEventHandler> handlers,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${todo.outbox.enabled:true}") boolean enabled,
+            @Value("${todo.outbox.batch-size:100}") int batchSize,
+            @Value("${todo.outbox.max-attempts:10}") int maxAttempts,
+            @Value("${todo.outbox.initial-backoff:1s}") Duration initialBackoff,
+            @Value("${todo.outbox.max-backoff:5m}") Duration maxBackoff) {
+        this.repository = repository;
+        this.handlers = handlers;
+        this.transactions = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+        this.lag = Timer.builder("todo.outbox.lag")
+                .description("Time from a change committing to its side effects completing")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        // Read from the table at scrape time, so they keep growing while the dispatcher is stalled or every
+        // delivery fails, when the lag timer records nothing.
+        Gauge.builder("todo.outbox.pending", repository, OutboxEventRepository::countPending)
+                .description("Outbox events not yet delivered or given up on")
+                .register(meterRegistry);
+        TimeGauge.builder("todo.outbox.oldest.age", this, TimeUnit.MILLISECONDS, OutboxDispatcher::oldestPendingAge)
+                .description("Age of the oldest outbox event not yet delivered or given up on")
+                .register(meterRegistry);
+        this.delivered = outcome(meterRegistry, "delivered");
+        this.retried = outcome(meterRegistry, "retried");
+        this.failed = outcome(meterRegistry, "failed");
+    }
+
+    @Scheduled(fixedDelayString = "${todo.outbox.poll-interval:PT1S}")
+    public void poll() {
+        if (enabled) {
+            dispatch();
+        }
+    }
+
+    /**
+     * Handles due events until a claim comes back short, and returns how many events were claimed.
+     */
+    public int dispatch() {
+        int total = 0;
+        int claimed;
+        do {
+            claimed = transactions.execute(status -> dispatchBatch());
+            total += claimed;
+        } while (claimed == batchSize);
+        return total;
+    }
+
+    private int dispatchBatch() {
+        Instant now = Todo.now();
+        List<OutboxEvent> batch = repository.claimDue(now, Limit.of(batchSize));
+        List<OutboxEvent> done = new ArrayList<>(batch.size());
+        for (OutboxEvent event : batch) {
+            try {
+                for (OutboxEventHandler handler : handlers) {
+                    handler.handle(event);
+                }
+                done.add(event);
+                delivered.increment();
+                lag.record(Duration.between(event.getCreatedAt(), Instant.now()));
+            } catch (Exception ex) {
+                reschedule(event, now, ex);
+            }
+        }
+        repository.deleteAllInBatch(done);
+        return batch.size();
+    }
+
+    private void reschedule(OutboxEvent event, Instant now, Exception ex) {
+        String error = ex.getClass().getName() + ": " + ex.getMessage();
+        if (event.getAttempts() + 1 >= maxAttempts) {
+            log.error("Giving up on outbox event {} after {} attempts", event.getId(), event.getAttempts() + 1, ex);
+            event.fail(now, error);
+            failed.increment();
+            return;
+        }
+        long factor = 1L << Math.min(event.getAttempts(), 30);
+        Duration backoff = initialBackoff.multipliedBy(factor);
+        if (backoff.compareTo(maxBackoff) > 0) {
+            backoff = maxBackoff;
+        }
+        log.warn("Outbox event {} failed, retrying in {}: {}", event.getId(), backoff, error);
+        event.retryAt(now.plus(backoff), error);
+        retried.increment();
+    }
+
+    double oldestPendingAge() {
+        Instant oldest = repository.oldestPendingCreatedAt();
+        return oldest == null ? 0 : Duration.between(oldest, Instant.now()).toMillis();
+    }
+
+    private static Counter outcome(MeterRegistry registry, String outcome) {
+        return Counter.builder("todo.outbox.events")
+                .description("Outbox events by dispatch outcome")
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+}
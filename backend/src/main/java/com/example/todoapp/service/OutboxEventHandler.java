@@ -0,0 +1,12 @@
+package com.example.todoapp.service;
+
+import com.example.todoapp.model.OutboxEvent;
+
+/**
+ * Side effect run for every outbox event. Delivery is at least once: an event is retried, for every handler,
+ * when any handler throws, so implementations must be idempotent.
+ */
+public interface OutboxEventHandler {
+
+    void handle(OutboxEvent event) throws Exception;
+}
@@ -0,0 +1,38 @@
+package com.example.todoapp.service;
+
+import com.example.todoapp.model.OutboxEvent;
+import com.example.todoapp.repository.OutboxEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Records each {@link TodoChangedEvent} in the outbox inside the transaction that made the change, so the
+ * side effect is stored exactly when the change commits.
+ */
+@Component
+public class OutboxWriter {
+
+    private final OutboxEventRepository repository;
+    private final ObjectMapper objectMapper;
+
+    public OutboxWriter(OutboxEventRepository repository, ObjectMapper objectMapper) {
+        this.repository = repository;
+        this.objectMapper = objectMapper;
+    }
+
+    @EventListener
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onChange(TodoChangedEvent event) {
+        String payload;
+        try {
+            payload = objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Could not serialize " + event, ex);
+        }
+        repository.save(new OutboxEvent(event.id(), event.type().name(), payload));
+    }
+}
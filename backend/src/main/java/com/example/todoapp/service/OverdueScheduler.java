@@ -0,0 +1,127 @@
+package com.example.todoapp.service;
+
+import com.example.todoapp.api.dto.TodoResponse;
+import com.example.todoapp.model.Todo;
+import com.example.todoapp.model.TodoStatus;
+import com.example.todoapp.repository.DueDateSchedulerRepository;
+import com.example.todoapp.repository.TodoRepository;
+import com.example.todoapp.service.TodoChangedEvent.Type;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Publishes an {@link Type#OVERDUE} change for every open todo once its due date has passed, which reaches the
+ * outbox and the change feed like any other change.
+ *
+ * <p>Only the replica holding the lease in {@code due_date_scheduler} fires. Candidates come from the day's bucket
+ * in {@link DueDateIndex} and are re-read by id before firing, so a todo completed or rescheduled since the index
+ * last caught up is skipped. Each day is fired in one transaction that also advances {@code fired_through} while
+ * holding the lease row, so a day is fired exactly once even across a change of owner. The first owner starts
+ * from the current day; days before it are never fired.
+ */
+@Component
+public class OverdueScheduler {
+
+    private static final Logger log = LoggerFactory.getLogger(OverdueScheduler.class);
+    private static final int FETCH_SIZE = 500;
+
+    private final DueDateSchedulerRepository repository;
+    private final TodoRepository todos;
+    private final DueDateIndex index;
+    private final ApplicationEventPublisher events;
+    private final TransactionTemplate writes;
+    private final boolean enabled;
+    private final Duration lease;
+    private final String owner = UUID.randomUUID().toString();
+
+    public OverdueScheduler(
+            DueDateSchedulerRepository repository,
+            TodoRepository todos,
+            DueDateIndex index,
+            ApplicationEventPublisher events,
+            PlatformTransactionManager transactionManager,
+            @Value("${todo.due.overdue-enabled:true}") boolean enabled,
+            @Value("${todo.due.lease:PT2M}") Duration lease) {
+        this.repository = repository;
+        this.todos = todos;
+        this.index = index;
+        this.events = events;
+        this.writes = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.lease = lease;
+    }
+
+    // Also renews the lease, so the interval has to stay well below todo.due.lease.
+    @Scheduled(fixedDelayString = "${todo.due.tick-interval:PT30S}",
+            initialDelayString = "${todo.due.tick-interval:PT30S}")
+    public void tick() {
+        if (enabled) {
+            fireOverdue(LocalDate.now());
+        }
+    }
+
+    /**
+     * Fires every day before {@code today} not fired yet, if this replica holds or can take the lease, and returns
+     * how many todos were reported overdue.
+     */
+    int fireOverdue(LocalDate today) {
+        index.refresh();
+        int fired = 0;
+        Integer day;
+        while ((day = writes.execute(status -> fireNextDay(today))) != null) {
+            fired += day;
+        }
+        return fired;
+    }
+
+    // Returns null when there is nothing to fire or another replica holds the lease.
+    private Integer fireNextDay(LocalDate today) {
+        Instant now = Todo.now();
+        if (!repository.acquire(owner, now, now.plus(lease))) {
+            return null;
+        }
+        LocalDate firedThrough = repository.firedThrough();
+        LocalDate yesterday = today.minusDays(1);
+        if (firedThrough == null) {
+            repository.setFiredThrough(yesterday);
+            return null;
+        }
+        if (!firedThrough.isBefore(yesterday)) {
+            return null;
+        }
+        LocalDate dueDate = firedThrough.plusDays(1);
+        int fired = fire(dueDate);
+        repository.setFiredThrough(dueDate);
+        if (fired > 0) {
+            log.info("Reported {} todos due {} as overdue", fired, dueDate);
+        }
+        return fired;
+    }
+
+    private int fire(LocalDate dueDate) {
+        List<UUID> candidates = new ArrayList<>(index.dueOn(dueDate));
+        int fired = 0;
+        for (int from = 0; from < candidates.size(); from += FETCH_SIZE) {
+            List<UUID> chunk = candidates.subList(from, Math.min(from + FETCH_SIZE, candidates.size()));
+            for (Todo todo : todos.findAllById(chunk)) {
+                if (todo.getStatus() != TodoStatus.DONE && dueDate.equals(todo.getDueDate())) {
+                    events.publishEvent(new TodoChangedEvent(Type.OVERDUE, todo.getId(), TodoResponse.from(todo)));
+                    fired++;
+                }
+            }
+        }
+        return fired;
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.todoapp.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Shares one in-flight load between concurrent callers asking for the same key. The first caller runs the loader;
+ * callers that arrive before it finishes wait for its result, or its exception, instead of running their own.
+ *
+ * <p>Nothing is kept once the load finishes. {@link #forget} detaches in-flight loads so callers arriving after a
+ * write start a fresh one rather than joining a load that may have read the old state.
+ */
+final class SingleFlight<K, V> {
+
+    private final ConcurrentHashMap<K, Flight<V>> flights = new ConcurrentHashMap<>();
+    private final Counter loads;
+    private final Counter shared;
+    private final DistributionSummary fanIn;
+
+    SingleFlight(String name, MeterRegistry meterRegistry) {
+        this.loads = Counter.builder("todo.singleflight.calls")
+                .tag("name", name)
+                .tag("result", "loaded")
+                .register(meterRegistry);
+        this.shared = Counter.builder("todo.singleflight.calls")
+                .tag("name", name)
+                .tag("result", "shared")
+                .register(meterRegistry);
+        this.fanIn = DistributionSummary.builder("todo.singleflight.fan.in")
+                .description("Callers served by each load, including the one that ran it")
+                .tag("name", name)
+                .register(meterRegistry);
+    }
+
+    V get(K key, Supplier<V> loader) {
+        Flight<V> mine = new Flight<>(new CompletableFuture<>(), new AtomicInteger(1));
+        Flight<V> running = flights.putIfAbsent(key, mine);
+        if (running != null) {
+            running.callers().incrementAndGet();
+            shared.increment();
+            return join(running.result());
+        }
+        loads.increment();
+        try {
+            V value = loader.get();
+            mine.result().complete(value);
+            return value;
+        } catch (RuntimeException | Error ex) {
+            mine.result().completeExceptionally(ex);
+            throw ex;
+        } finally {
+            flights.remove(key, mine);
+            fanIn.record(mine.callers().get());
+        }
+    }
+
+    void forget(K key) {
+        flights.remove(key);
+    }
+
+    void forgetAll() {
+        flights.clear();
+    }
+
+    private static <V> V join(CompletableFuture<V> result) {
+        try {
+            return result.join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (ex.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw ex;
+        }
+    }
+
+    private record Flight<V>(CompletableFuture<V> result, AtomicInteger callers) {
+    }
+}
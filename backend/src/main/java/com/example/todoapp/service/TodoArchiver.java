@@ -0,0 +1,98 @@
+package com.example.todoapp.service;
+
+import com.example.todoapp.model.Todo;
+import com.example.todoapp.repository.TodoRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.time.Instant;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Moves DONE todos that have not changed for a while out of the hot list. Rows are archived in small batches, each
+ * in its own short transaction with a pause in between, so the job never holds many row locks or competes with
+ * request traffic for long. Reopening an archived todo un-archives it.
+ */
+@Component
+public class TodoArchiver {
+
+    private static final Logger log = LoggerFactory.getLogger(TodoArchiver.class);
+
+    private final TodoRepository repository;
+    private final TodoCache cache;
+    private final TransactionTemplate batches;
+    private final boolean enabled;
+    private final Duration after;
+    private final int batchSize;
+    private final Duration pause;
+    private final Counter archived;
+
+    public TodoArchiver(
+            TodoRepository repository,
+            TodoCache cache,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${todo.archive.enabled:true}") boolean enabled,
+            @Value("${todo.archive.after:30d}") Duration after,
+            @Value("${todo.archive.batch-size:500}") int batchSize,
+            @Value("${todo.archive.pause:200ms}") Duration pause) {
+        this.repository = repository;
+        this.cache = cache;
+        this.batches = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.after = after;
+        this.batchSize = batchSize;
+        this.pause = pause;
+        this.archived = Counter.builder("todo.archive.archived")
+                .description("Todos moved to the archive")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${todo.archive.interval:PT1H}",
+            initialDelayString = "${todo.archive.interval:PT1H}")
+    public void archive() {
+        if (enabled) {
+            archive(Todo.now().minus(after));
+        }
+    }
+
+    /**
+     * Archives every DONE todo last updated before {@code updatedBefore} and returns how many were archived.
+     */
+    int archive(Instant updatedBefore) {
+        int total = 0;
+        while (true) {
+            Integer count = batches.execute(status -> repository.archiveDone(updatedBefore, batchSize));
+            int moved = count == null ? 0 : count;
+            total += moved;
+            archived.increment(moved);
+            if (moved > 0) {
+                // Cached lists may still hold the rows that just left the hot list.
+                cache.invalidateLists();
+            }
+            if (moved < batchSize || !sleep(pause)) {
+                break;
+            }
+        }
+        if (total > 0) {
+            log.info("Archived {} todos done before {}", total, updatedBefore);
+        }
+        return total;
+    }
+
+    private static boolean sleep(Duration pause) {
+        try {
+            Thread.sleep(pause);
+            return true;
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
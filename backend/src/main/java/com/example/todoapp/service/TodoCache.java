@@ -0,0 +1,153 @@
+package com.example.todoapp.service;
+
+import com.example.todoapp.api.dto.TodoResponse;
+import com.example.todoapp.config.ReadYourWritesFilter;
+import com.example.todoapp.config.ReplicaRoutingDataSource;
+import com.example.todoapp.repository.TodoFilter;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Bounded read-through cache for single todos and filtered lists.
+ *
+ * <p>Entries are evicted when a write touches them and again once the writing transaction completes, so a
+ * concurrent read that repopulated an entry from pre-commit state is dropped at the commit. A list that is still
+ * loading cannot be matched against the write, so any eviction during its load keeps it out of the cache.
+ *
+ * <p>Entries are always loaded from the primary. A replica may not have applied a write yet, and a stale entry it
+ * served would outlive the eviction and be handed to everyone until it expires. The price is that every miss, and
+ * every read right after a write has evicted its entries, lands on the primary; the replicas only take over the
+ * item and list reads with {@code todo.cache.enabled=false}, where nothing outlives a lagging answer.
+ *
+ * <p>Loads are coalesced through {@link SingleFlight}, whether or not caching is enabled, so a burst of identical
+ * reads runs one query. Reads inside a transaction are never shared, since they may see that transaction's own
+ * writes. Reads pinned to the primary by {@link ReadYourWritesFilter} bypass the cache altogether: an entry loaded
+ * by another client just before the write committed would otherwise hand the writer its old state.
+ */
+@Component
+public class TodoCache {
+
+    private final boolean enabled;
+    private final Cache<UUID, TodoResponse> items;
+    private final Cache<TodoFilter, CachedList> lists;
+    private final SingleFlight<UUID, TodoResponse> itemLoads;
+    private final SingleFlight<TodoFilter, List<TodoResponse>> listLoads;
+    private final AtomicLong evictions = new AtomicLong();
+
+    public TodoCache(
+            @Value("${todo.cache.enabled:true}") boolean enabled,
+            @Value("${todo.cache.items.max-size:10000}") long itemsMaxSize,
+            @Value("${todo.cache.items.ttl:60s}") Duration itemsTtl,
+            @Value("${todo.cache.lists.max-size:1000}") long listsMaxSize,
+            @Value("${todo.cache.lists.ttl:10s}") Duration listsTtl,
+            MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.items = Caffeine.newBuilder()
+                .maximumSize(itemsMaxSize)
+                .expireAfterWrite(itemsTtl)
+                .recordStats()
+                .build();
+        this.lists = Caffeine.newBuilder()
+                .maximumSize(listsMaxSize)
+                .expireAfterWrite(listsTtl)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, items, "todo.items");
+        CaffeineCacheMetrics.monitor(meterRegistry, lists, "todo.lists");
+        this.itemLoads = new SingleFlight<>("todo.items", meterRegistry);
+        this.listLoads = new SingleFlight<>("todo.lists", meterRegistry);
+    }
+
+    public TodoResponse getItem(UUID id, Function<UUID, TodoResponse> loader) {
+        if (ReadYourWritesFilter.isPinned()) {
+            return loader.apply(id);
+        }
+        Supplier<TodoResponse> load = () -> enabled
+                ? items.get(id, key -> ReplicaRoutingDataSource.onPrimary(() -> loader.apply(key)))
+                : loader.apply(id);
+        return shareable() ? itemLoads.get(id, load) : load.get();
+    }
+
+    public List<TodoResponse> getList(TodoFilter filter, Supplier<List<TodoResponse>> loader) {
+        if (ReadYourWritesFilter.isPinned()) {
+            return loader.get();
+        }
+        Supplier<List<TodoResponse>> load = () -> enabled ? cachedList(filter, loader) : loader.get();
+        return shareable() ? listLoads.get(filter, load) : load.get();
+    }
+
+    private List<TodoResponse> cachedList(TodoFilter filter, Supplier<List<TodoResponse>> loader) {
+        long before = evictions.get();
+        CachedList list = lists.get(filter, key -> new CachedList(ReplicaRoutingDataSource.onPrimary(loader)));
+        if (evictions.get() != before) {
+            // evict() cannot see an entry that is still being computed, so it may hold the state before the write.
+            lists.asMap().remove(filter, list);
+        }
+        return list.items();
+    }
+
+    /**
+     * Evicts the todo and every cached list that either contains it or would contain its new state.
+     *
+     * @param current the state after the write, or {@code null} when the todo was deleted
+     */
+    public void invalidate(UUID id, TodoResponse current) {
+        evict(id, current);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    evict(id, current);
+                }
+            });
+        }
+    }
+
+    /**
+     * Evicts every cached list, for writes that change list membership in bulk without going through
+     * {@link #invalidate}.
+     */
+    public void invalidateLists() {
+        listLoads.forgetAll();
+        evictions.incrementAndGet();
+        lists.invalidateAll();
+    }
+
+    private static boolean shareable() {
+        return !TransactionSynchronizationManager.isActualTransactionActive();
+    }
+
+    private void evict(UUID id, TodoResponse current) {
+        // Loads already running may have read the old state; later readers must start their own.
+        itemLoads.forget(id);
+        listLoads.forgetAll();
+        if (!enabled) {
+            return;
+        }
+        items.invalidate(id);
+        evictions.incrementAndGet();
+        lists.asMap().entrySet().removeIf(entry -> entry.getValue().ids().contains(id)
+                || (current != null && entry.getKey().matches(current.getStatus(), current.getDueDate())));
+    }
+
+    private record CachedList(List<TodoResponse> items, Set<UUID> ids) {
+
+        CachedList(List<TodoResponse> items) {
+            this(items, items.stream().map(TodoResponse::getId).collect(Collectors.toUnmodifiableSet()));
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package com.example.todoapp.service;
+
+import com.example.todoapp.api.dto.TodoChangesResponse;
+import com.example.todoapp.api.dto.TodoResponse;
+import com.example.todoapp.exception.BadRequestException;
+import com.example.todoapp.exception.GoneException;
+import com.example.todoapp.model.Todo;
+import com.example.todoapp.model.TodoTombstone;
+import com.example.todoapp.repository.ChangedTodo;
+import com.example.todoapp.repository.TodoChangeLogRepository;
+import com.example.todoapp.repository.TodoChangeWatermark;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Records which todos a transaction changed or deleted and serves them to sync clients as a delta since a
+ * watermark, so a client catching up costs O(changes) rather than O(table).
+ *
+ * <p>Just before commit the transaction takes its change sequence value, stamps it on the rows it wrote and leaves a
+ * tombstone for each row it deleted. Readers only return changes up to
+ * {@link TodoChangeLogRepository#visibleThrough()}, below which no transaction still running can commit a value,
+ * so a client that has seen a value has already seen every smaller one. Tombstones older than the retention window
+ * are purged; clients whose watermark predates the purge must sync from the start again.
+ */
+@Component
+public class TodoChangeLog {
+
+    static final int ORDER = Ordered.LOWEST_PRECEDENCE;
+
+    private static final Logger log = LoggerFactory.getLogger(TodoChangeLog.class);
+
+    private final TodoChangeLogRepository repository;
+    private final TransactionTemplate snapshots;
+    private final TransactionTemplate writes;
+    private final Duration tombstoneRetention;
+
+    public TodoChangeLog(
+            TodoChangeLogRepository repository,
+            PlatformTransactionManager transactionManager,
+            @Value("${todo.changes.tombstone-retention:30d}") Duration tombstoneRetention) {
+        this.repository = repository;
+        // Rows and tombstones must come from the same snapshot or a delete between the two reads is missed.
+        this.snapshots = new TransactionTemplate(transactionManager);
+        this.snapshots.setReadOnly(true);
+        this.snapshots.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.writes = new TransactionTemplate(transactionManager);
+        this.tombstoneRetention = tombstoneRetention;
+    }
+
+    public void changed(UUID id) {
+        Changes changes = currentChanges();
+        changes.changed.add(id);
+        applyIfUnbound(changes);
+    }
+
+    public void deleted(UUID id) {
+        Changes changes = currentChanges();
+        changes.changed.remove(id);
+        changes.deleted.add(id);
+        applyIfUnbound(changes);
+    }
+
+    /**
+     * Returns up to {@code limit} changes after the watermark in sequence order; a null watermark starts from the
+     * beginning, which returns every live todo.
+     *
+     * @throws GoneException if tombstones the client still needs have been purged
+     */
+    public TodoChangesResponse since(String watermark, int limit) {
+        if (limit < 1 || limit > TodoService.MAX_PAGE_SIZE) {
+            throw new BadRequestException("limit must be between 1 and " + TodoService.MAX_PAGE_SIZE);
+        }
+        TodoChangeWatermark after = watermark == null
+                ? TodoChangeWatermark.START
+                : TodoChangeWatermark.decode(watermark);
+        return snapshots.execute(status -> {
+            if (!after.equals(TodoChangeWatermark.START) && after.changeSeq() < repository.purgedThrough()) {
+                throw new GoneException("Watermark is older than the tombstone retention; sync from the start");
+            }
+            long through = repository.visibleThrough();
+            List<ChangedTodo> changed = repository.changedAfter(after, through, limit + 1);
+            List<TodoTombstone> tombstones = repository.tombstonesAfter(after, through, limit + 1);
+
+            List<TodoResponse> upserted = new ArrayList<>();
+            List<UUID> deleted = new ArrayList<>();
+            TodoChangeWatermark last = after;
+            int c = 0;
+            int t = 0;
+            while (upserted.size() + deleted.size() < limit && (c < changed.size() || t < tombstones.size())) {
+                TodoChangeWatermark nextChanged = c < changed.size() ? changed.get(c).watermark() : null;
+                TodoChangeWatermark nextDeleted = t < tombstones.size() ? watermark(tombstones.get(t)) : null;
+                if (nextDeleted == null
+                        || (nextChanged != null && TodoChangeWatermark.compare(nextChanged, nextDeleted) < 0)) {
+                    upserted.add(TodoResponse.from(changed.get(c++).todo()));
+                    last = nextChanged;
+                } else {
+                    deleted.add(tombstones.get(t++).getId());
+                    last = nextDeleted;
+                }
+            }
+            boolean hasMore = c < changed.size() || t < tombstones.size();
+            return new TodoChangesResponse(upserted, deleted, last.encode(), hasMore);
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${todo.changes.compaction-interval:PT1H}",
+            initialDelayString = "${todo.changes.compaction-interval:PT1H}")
+    public void compact() {
+        int purged = writes.execute(status -> repository.purgeTombstones(Todo.now().minus(tombstoneRetention)));
+        if (purged > 0) {
+            log.info("Purged {} todo tombstones older than {}", purged, tombstoneRetention);
+        }
+    }
+
+    private static TodoChangeWatermark watermark(TodoTombstone tombstone) {
+        return new TodoChangeWatermark(tombstone.getChangeSeq(), tombstone.getId());
+    }
+
+    private void applyIfUnbound(Changes changes) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            changes.apply();
+        }
+    }
+
+    private Changes currentChanges() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return new Changes();
+        }
+        Changes changes = (Changes) TransactionSynchronizationManager.getResource(this);
+        if (changes == null) {
+            changes = new Changes();
+            TransactionSynchronizationManager.bindResource(this, changes);
+            TransactionSynchronizationManager.registerSynchronization(changes);
+        }
+        return changes;
+    }
+
+    private final class Changes implements TransactionSynchronization {
+
+        private final Set<UUID> changed = new LinkedHashSet<>();
+        private final Set<UUID> deleted = new LinkedHashSet<>();
+
+        void apply() {
+            if (changed.isEmpty() && deleted.isEmpty()) {
+                return;
+            }
+            long changeSeq = repository.nextValue();
+            if (!changed.isEmpty()) {
+                repository.stamp(changeSeq, changed);
+            }
+            for (UUID id : deleted) {
+                repository.addTombstone(new TodoTombstone(id, changeSeq, Todo.now()));
+            }
+        }
+
+        // Last, so where the sequence is a locked row it is held for as little of the transaction as possible.
+        @Override
+        public int getOrder() {
+            return ORDER;
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            apply();
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(TodoChangeLog.this);
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.todoapp.service;
+
+import com.example.todoapp.api.dto.TodoResponse;
+import java.util.UUID;
+
+/**
+ * Published by {@link TodoService} for every write; {@code todo} is the new state and null for deletes.
+ */
+public record TodoChangedEvent(Type type, UUID id, TodoResponse todo) {
+
+    public enum Type {
+        CREATED,
+        UPDATED,
+        STATUS_CHANGED,
+        DELETED,
+        // Not a write: published once by OverdueScheduler when the due date of an open todo has passed.
+        OVERDUE
+    }
+}
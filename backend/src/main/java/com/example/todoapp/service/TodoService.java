@@ -1,58 +1,368 @@
 package com.example.todoapp.service;
 
+import com.example.todoapp.api.dto.BulkItemResult;
+import com.example.todoapp.api.dto.BulkResponse;
+import com.example.todoapp.api.dto.BulkStatusUpdate;
+import com.example.todoapp.api.dto.BulkTodoUpdate;
+import com.example.todoapp.api.dto.TodoPageResponse;
 import com.example.todoapp.api.dto.TodoRequest;
 import com.example.todoapp.api.dto.TodoResponse;
+import com.example.todoapp.exception.BadRequestException;
 import com.example.todoapp.exception.NotFoundException;
+import com.example.todoapp.exception.PreconditionFailedException;
 import com.example.todoapp.model.Todo;
 import com.example.todoapp.model.TodoStatus;
+import com.example.todoapp.repository.TodoCursor;
+import com.example.todoapp.repository.TodoFilter;
+import com.example.todoapp.repository.TodoListVersion;
 import com.example.todoapp.repository.TodoRepository;
+import com.example.todoapp.repository.TodoState;
+import com.example.todoapp.repository.TodoStatusUpdate;
+import com.example.todoapp.repository.TodoSummary;
+import com.example.todoapp.service.TodoChangedEvent.Type;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 @Service
 @Transactional
 public class TodoService {
 
+    public static final int MAX_PAGE_SIZE = 500;
+
     private final TodoRepository repository;
+    private final TodoCache cache;
+    private final EntityManager entityManager;
+    private final Validator validator;
+    private final ApplicationEventPublisher events;
+    private final TodoStats stats;
+    private final TodoChangeLog changeLog;
+    private final int bulkMaxItems;
+    private final int jdbcBatchSize;
+    private final int summaryDescriptionLength;
 
-    public TodoService(TodoRepository repository) {
+    public TodoService(
+            TodoRepository repository,
+            TodoCache cache,
+            EntityManager entityManager,
+            Validator validator,
+            ApplicationEventPublisher events,
+            TodoStats stats,
+            TodoChangeLog changeLog,
+            @Value("${todo.bulk.max-items:1000}") int bulkMaxItems,
+            @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}") int jdbcBatchSize,
+            @Value("${todo.summary.description-length:200}") int summaryDescriptionLength) {
         this.repository = repository;
+        this.cache = cache;
+        this.entityManager = entityManager;
+        this.validator = validator;
+        this.events = events;
+        this.stats = stats;
+        this.changeLog = changeLog;
+        this.bulkMaxItems = bulkMaxItems;
+        this.jdbcBatchSize = jdbcBatchSize;
+        this.summaryDescriptionLength = summaryDescriptionLength;
+    }
+
+    // Cached reads join a caller's transaction but never open one, so a cache hit does not take a connection.
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public List<TodoResponse> list(
+            TodoStatus status, LocalDate fromDate, LocalDate toDate, boolean includeArchived) {
+        TodoFilter filter = new TodoFilter(status, fromDate, toDate, includeArchived);
+        return cache.getList(filter, () ->
+                repository.search(filter).stream()
+                        .map(TodoResponse::from)
+                        .toList());
+    }
+
+    @Transactional(readOnly = true)
+    public List<TodoSummary> listSummaries(
+            TodoStatus status, LocalDate fromDate, LocalDate toDate, boolean includeArchived) {
+        return repository.searchSummaries(
+                new TodoFilter(status, fromDate, toDate, includeArchived), summaryDescriptionLength);
+    }
+
+    @Transactional(readOnly = true)
+    public TodoListVersion listVersion(
+            TodoStatus status, LocalDate fromDate, LocalDate toDate, boolean includeArchived) {
+        return repository.searchVersion(new TodoFilter(status, fromDate, toDate, includeArchived));
     }
 
-    public List<TodoResponse> list(TodoStatus status, LocalDate fromDate, LocalDate toDate) {
-        return repository.search(status, fromDate, toDate).stream()
+    @Transactional(readOnly = true)
+    public TodoPageResponse page(
+            TodoStatus status, LocalDate fromDate, LocalDate toDate, boolean includeArchived, String cursor,
+            int limit) {
+        checkLimit(limit);
+        TodoCursor after = cursor == null || cursor.isBlank() ? null : TodoCursor.decode(cursor);
+        TodoFilter filter = new TodoFilter(status, fromDate, toDate, includeArchived);
+        // Fetch one extra row to learn whether another page exists without a count query.
+        List<Todo> rows = repository.searchPage(filter, after, limit + 1);
+        boolean hasMore = rows.size() > limit;
+        List<Todo> page = hasMore ? rows.subList(0, limit) : rows;
+        String nextCursor = hasMore ? TodoCursor.of(page.getLast()).encode() : null;
+        return new TodoPageResponse(page.stream().map(TodoResponse::from).toList(), nextCursor);
+    }
+
+    @Transactional(readOnly = true)
+    public List<TodoResponse> search(
+            TodoStatus status, LocalDate fromDate, LocalDate toDate, boolean includeArchived, String text, int limit,
+            int offset) {
+        checkLimit(limit);
+        if (offset < 0) {
+            throw new BadRequestException("offset must not be negative");
+        }
+        TodoFilter filter = new TodoFilter(status, fromDate, toDate, includeArchived);
+        return repository.searchText(filter, text.strip(), limit, offset).stream()
                 .map(TodoResponse::from)
                 .toList();
     }
 
+    @Transactional(readOnly = true)
+    public void export(
+            TodoStatus status, LocalDate fromDate, LocalDate toDate, boolean includeArchived,
+            Consumer<TodoResponse> sink) {
+        try (Stream<Todo> todos = repository.streamAll(new TodoFilter(status, fromDate, toDate, includeArchived))) {
+            todos.forEach(todo -> {
+                sink.accept(TodoResponse.from(todo));
+                // Detach each row once written so the persistence context stays empty for the whole export.
+                entityManager.detach(todo);
+            });
+        }
+    }
+
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public TodoResponse get(UUID id) {
-        return TodoResponse.from(findOrThrow(id));
+        return cache.getItem(id, key -> TodoResponse.from(findOrThrow(key)));
     }
 
     public TodoResponse create(TodoRequest request) {
         Todo todo = new Todo();
         copy(request, todo);
-        return TodoResponse.from(repository.save(todo));
+        repository.save(todo);
+        stats.record(null, TodoState.of(todo));
+        return changed(Type.CREATED, TodoResponse.from(todo));
     }
 
     public TodoResponse update(UUID id, TodoRequest request) {
-        Todo todo = findOrThrow(id);
+        return update(id, request, null);
+    }
+
+    /**
+     * Updates the todo only if {@code precondition} accepts its current state; the row is locked for the check so a
+     * concurrent writer cannot slip in between. A null precondition updates unconditionally.
+     */
+    public TodoResponse update(UUID id, TodoRequest request, Predicate<TodoResponse> precondition) {
+        Todo todo;
+        if (precondition == null) {
+            todo = findOrThrow(id);
+        } else {
+            todo = repository.findForUpdate(id).orElseThrow(() -> new NotFoundException("Todo not found"));
+            if (!precondition.test(TodoResponse.from(todo))) {
+                throw new PreconditionFailedException("Todo was modified by another request");
+            }
+        }
+        TodoState before = TodoState.of(todo);
         copy(request, todo);
-        return TodoResponse.from(todo);
+        stats.record(before, TodoState.of(todo));
+        // Flush so @PreUpdate has stamped updatedAt before the response (and its ETag) is built.
+        entityManager.flush();
+        return changed(Type.UPDATED, TodoResponse.from(todo));
     }
 
     public TodoResponse updateStatus(UUID id, TodoStatus status) {
-        Todo todo = findOrThrow(id);
-        todo.setStatus(status);
-        return TodoResponse.from(todo);
+        TodoStatusUpdate update = repository.updateStatusReturning(id, status, Todo.now())
+                .orElseThrow(() -> new NotFoundException("Todo not found"));
+        Todo todo = update.todo();
+        stats.record(new TodoState(id, update.previousStatus(), todo.getDueDate()), TodoState.of(todo));
+        return changed(Type.STATUS_CHANGED, TodoResponse.from(todo));
     }
 
     public void delete(UUID id) {
-        Todo todo = findOrThrow(id);
-        repository.delete(todo);
+        List<TodoState> removed = repository.deleteAllReturning(List.of(id));
+        if (removed.isEmpty()) {
+            throw new NotFoundException("Todo not found");
+        }
+        removed.forEach(this::deleted);
+    }
+
+    public BulkResponse createAll(List<TodoRequest> requests) {
+        checkBulkSize(requests);
+        BulkItemResult[] results = new BulkItemResult[requests.size()];
+        List<Todo> chunk = new ArrayList<>(jdbcBatchSize);
+        List<Integer> chunkIndexes = new ArrayList<>(jdbcBatchSize);
+        for (int i = 0; i < requests.size(); i++) {
+            TodoRequest request = requests.get(i);
+            String error = validate(request);
+            if (error != null) {
+                results[i] = BulkItemResult.failure(i, HttpStatus.BAD_REQUEST.value(), null, error);
+                continue;
+            }
+            Todo todo = new Todo();
+            copy(request, todo);
+            chunk.add(todo);
+            chunkIndexes.add(i);
+            if (chunk.size() == jdbcBatchSize) {
+                flushCreated(chunk, chunkIndexes, results);
+            }
+        }
+        flushCreated(chunk, chunkIndexes, results);
+        return new BulkResponse(Arrays.asList(results));
+    }
+
+    public BulkResponse updateAll(List<BulkTodoUpdate> requests) {
+        return applyToExisting(requests, BulkTodoUpdate::getId, Type.UPDATED, (request, todo) -> copy(request, todo));
+    }
+
+    public BulkResponse updateStatusAll(List<BulkStatusUpdate> requests) {
+        return applyToExisting(requests, BulkStatusUpdate::getId, Type.STATUS_CHANGED,
+                (request, todo) -> todo.setStatus(request.getStatus()));
+    }
+
+    public BulkResponse deleteAll(List<UUID> ids) {
+        checkBulkSize(ids);
+        Set<UUID> existing = new HashSet<>();
+        for (TodoState removed : repository.deleteAllReturning(distinctIds(ids))) {
+            existing.add(removed.id());
+            deleted(removed);
+        }
+        List<BulkItemResult> results = new ArrayList<>(ids.size());
+        Set<UUID> deleted = new HashSet<>();
+        for (int i = 0; i < ids.size(); i++) {
+            UUID id = ids.get(i);
+            if (id == null) {
+                results.add(BulkItemResult.failure(i, HttpStatus.BAD_REQUEST.value(), null, "id: must not be null"));
+            } else if (existing.contains(id) && deleted.add(id)) {
+                results.add(BulkItemResult.success(i, HttpStatus.NO_CONTENT.value(), id, null));
+            } else {
+                results.add(notFound(i, id));
+            }
+        }
+        return new BulkResponse(results);
+    }
+
+    private static void checkLimit(int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new BadRequestException("limit must be between 1 and " + MAX_PAGE_SIZE);
+        }
+    }
+
+    private void checkBulkSize(List<?> items) {
+        if (items == null || items.isEmpty() || items.size() > bulkMaxItems) {
+            throw new BadRequestException("Bulk requests must contain between 1 and " + bulkMaxItems + " items");
+        }
+    }
+
+    private String validate(Object request) {
+        if (request == null) {
+            return "Item must not be null";
+        }
+        Set<ConstraintViolation<Object>> violations = validator.validate(request);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                .sorted()
+                .collect(Collectors.joining(", "));
+    }
+
+    private <T> BulkResponse applyToExisting(
+            List<T> requests, Function<T, UUID> idOf, Type type, BiConsumer<T, Todo> change) {
+        checkBulkSize(requests);
+        Map<UUID, Todo> existing = repository.findAllById(distinctIds(requests.stream()
+                        .filter(Objects::nonNull)
+                        .map(idOf)
+                        .toList()))
+                .stream()
+                .collect(Collectors.toMap(Todo::getId, Function.identity()));
+        List<BulkItemResult> results = new ArrayList<>(requests.size());
+        Map<Integer, Todo> changed = new LinkedHashMap<>();
+        for (int i = 0; i < requests.size(); i++) {
+            T request = requests.get(i);
+            String error = validate(request);
+            if (error != null) {
+                UUID id = request == null ? null : idOf.apply(request);
+                results.add(BulkItemResult.failure(i, HttpStatus.BAD_REQUEST.value(), id, error));
+                continue;
+            }
+            Todo todo = existing.get(idOf.apply(request));
+            if (todo == null) {
+                results.add(notFound(i, idOf.apply(request)));
+                continue;
+            }
+            TodoState before = TodoState.of(todo);
+            change.accept(request, todo);
+            stats.record(before, TodoState.of(todo));
+            changed.put(i, todo);
+            results.add(null);
+        }
+        // Dirty entities are written as ordered JDBC batches on this single flush.
+        entityManager.flush();
+        changed.forEach((i, todo) -> results.set(i, BulkItemResult.success(
+                i, HttpStatus.OK.value(), todo.getId(), changed(type, TodoResponse.from(todo)))));
+        return new BulkResponse(results);
+    }
+
+    private static List<UUID> distinctIds(List<UUID> ids) {
+        return ids.stream().filter(Objects::nonNull).distinct().toList();
+    }
+
+    private void flushCreated(List<Todo> chunk, List<Integer> indexes, BulkItemResult[] results) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        repository.saveAll(chunk);
+        entityManager.flush();
+        for (int j = 0; j < chunk.size(); j++) {
+            Todo todo = chunk.get(j);
+            int index = indexes.get(j);
+            stats.record(null, TodoState.of(todo));
+            results[index] = BulkItemResult.success(
+                    index, HttpStatus.CREATED.value(), todo.getId(), changed(Type.CREATED, TodoResponse.from(todo)));
+            entityManager.detach(todo);
+        }
+        chunk.clear();
+        indexes.clear();
+    }
+
+    private BulkItemResult notFound(int index, UUID id) {
+        return BulkItemResult.failure(index, HttpStatus.NOT_FOUND.value(), id, "Todo not found");
+    }
+
+    private TodoResponse changed(Type type, TodoResponse todo) {
+        changeLog.changed(todo.getId());
+        cache.invalidate(todo.getId(), todo);
+        events.publishEvent(new TodoChangedEvent(type, todo.getId(), todo));
+        return todo;
+    }
+
+    private void deleted(TodoState removed) {
+        stats.record(removed, null);
+        changeLog.deleted(removed.id());
+        cache.invalidate(removed.id(), null);
+        events.publishEvent(new TodoChangedEvent(Type.DELETED, removed.id(), null));
     }
 
     private Todo findOrThrow(UUID id) {
@@ -0,0 +1,191 @@
+package com.example.todoapp.service;
+
+import com.example.todoapp.api.dto.TodoStatsCheckResponse;
+import com.example.todoapp.api.dto.TodoStatsResponse;
+import com.example.todoapp.model.TodoStatus;
+import com.example.todoapp.repository.TodoCountsRepository;
+import com.example.todoapp.repository.TodoState;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Per-status and per-due-date counters kept in step with every write, so stats are read from a handful of counter
+ * rows instead of scanning todos.
+ *
+ * <p>Deltas are collected for the whole transaction and applied just before it commits, each to one randomly
+ * chosen slot. Concurrent writers therefore rarely contend on a counter row, and keys are updated in sorted order
+ * so the ones that do cannot deadlock. A periodic check compares the counters with {@code GROUP BY} over todos.
+ */
+@Component
+public class TodoStats {
+
+    static final int SLOTS = 16;
+
+    private static final Logger log = LoggerFactory.getLogger(TodoStats.class);
+
+    private final TodoCountsRepository repository;
+    private final TransactionTemplate reads;
+    private final TransactionTemplate writes;
+    private final TransactionTemplate checks;
+    private final AtomicLong drift = new AtomicLong();
+
+    public TodoStats(
+            TodoCountsRepository repository,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry) {
+        this.repository = repository;
+        this.reads = new TransactionTemplate(transactionManager);
+        this.reads.setReadOnly(true);
+        this.writes = new TransactionTemplate(transactionManager);
+        // Both sides of the comparison must come from the same snapshot or concurrent writes look like drift.
+        this.checks = new TransactionTemplate(transactionManager);
+        this.checks.setReadOnly(true);
+        this.checks.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        Gauge.builder("todo.stats.drift", drift, AtomicLong::get)
+                .description("Counter keys that disagreed with the todos table at the last consistency check")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Records a write to a todo; {@code before} is null for a create and {@code after} is null for a delete.
+     */
+    public void record(TodoState before, TodoState after) {
+        Deltas deltas = currentDeltas();
+        if (before != null) {
+            deltas.add(before, -1);
+        }
+        if (after != null) {
+            deltas.add(after, 1);
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            deltas.apply();
+        }
+    }
+
+    public TodoStatsResponse current(LocalDate today) {
+        return reads.execute(status -> {
+            Map<TodoStatus, Long> byStatus = new EnumMap<>(TodoStatus.class);
+            for (TodoStatus s : TodoStatus.values()) {
+                byStatus.put(s, 0L);
+            }
+            byStatus.putAll(repository.statusCounts());
+            long total = byStatus.values().stream().mapToLong(Long::longValue).sum();
+            return new TodoStatsResponse(
+                    byStatus,
+                    total,
+                    repository.openDueBefore(today),
+                    repository.openDueBetween(today, today.plusDays(6)));
+        });
+    }
+
+    public TodoStatsCheckResponse check() {
+        List<String> mismatches = checks.execute(status -> {
+            List<String> found = new ArrayList<>();
+            compare("status", repository.statusCounts(), repository.countTodosByStatus(), found);
+            compare("dueDate", repository.dueDateCounts(), repository.countOpenTodosByDueDate(), found);
+            return found;
+        });
+        drift.set(mismatches.size());
+        return new TodoStatsCheckResponse(mismatches);
+    }
+
+    @Scheduled(fixedDelayString = "${todo.stats.check-interval:PT1H}",
+            initialDelayString = "${todo.stats.check-interval:PT1H}")
+    public void checkPeriodically() {
+        TodoStatsCheckResponse result = check();
+        if (!result.isConsistent()) {
+            log.warn("Todo stats counters have drifted from the todos table: {}", result.getMismatches());
+        }
+        writes.executeWithoutResult(status -> repository.deleteEmpty());
+    }
+
+    private static <K> void compare(String name, Map<K, Long> counted, Map<K, Long> actual, List<String> mismatches) {
+        Set<K> keys = new HashSet<>(counted.keySet());
+        keys.addAll(actual.keySet());
+        keys.stream()
+                .sorted()
+                .forEach(key -> {
+                    long expected = actual.getOrDefault(key, 0L);
+                    long value = counted.getOrDefault(key, 0L);
+                    if (expected != value) {
+                        mismatches.add(name + " " + key + ": counted " + value + ", actual " + expected);
+                    }
+                });
+    }
+
+    private Deltas currentDeltas() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return new Deltas();
+        }
+        Deltas deltas = (Deltas) TransactionSynchronizationManager.getResource(this);
+        if (deltas == null) {
+            deltas = new Deltas();
+            TransactionSynchronizationManager.bindResource(this, deltas);
+            TransactionSynchronizationManager.registerSynchronization(deltas);
+        }
+        return deltas;
+    }
+
+    private final class Deltas implements TransactionSynchronization {
+
+        private final Map<TodoStatus, Long> byStatus = new EnumMap<>(TodoStatus.class);
+        private final Map<LocalDate, Long> byDueDate = new TreeMap<>();
+
+        void add(TodoState state, long delta) {
+            byStatus.merge(state.status(), delta, Long::sum);
+            if (state.status() != TodoStatus.DONE && state.dueDate() != null) {
+                byDueDate.merge(state.dueDate(), delta, Long::sum);
+            }
+        }
+
+        void apply() {
+            int slot = ThreadLocalRandom.current().nextInt(SLOTS);
+            byStatus.forEach((status, delta) -> {
+                if (delta != 0) {
+                    repository.addToStatus(status, slot, delta);
+                }
+            });
+            byDueDate.forEach((dueDate, delta) -> {
+                if (delta != 0) {
+                    repository.addToDueDate(dueDate, slot, delta);
+                }
+            });
+        }
+
+        // Before TodoChangeLog, which takes its sequence lock last; a fixed order keeps the locks deadlock-free.
+        @Override
+        public int getOrder() {
+            return TodoChangeLog.ORDER - 1;
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            apply();
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(TodoStats.this);
+        }
+    }
+}
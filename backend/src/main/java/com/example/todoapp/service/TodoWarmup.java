@@ -0,0 +1,153 @@
+package com.example.todoapp.service;
+
+import com.example.todoapp.api.dto.TodoRequest;
+import com.example.todoapp.config.ReplicaRoutingDataSource;
+import com.example.todoapp.model.TodoStatus;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.validation.Validator;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import javax.sql.DataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+/**
+ * Runs the hot read paths before the pod reports ready, so the first real requests neither open pool connections
+ * nor run in the interpreter. Spring Boot only marks the application ready once every runner has returned, which
+ * keeps the readiness probe failing until the warmup is done.
+ *
+ * <p>Only reads are issued, so warming a pod never changes data or the change sequence. A failed warmup is logged
+ * and the pod starts cold rather than not at all.
+ */
+@Component
+public class TodoWarmup implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(TodoWarmup.class);
+    private static final int PAGE_SIZE = 50;
+    private static final TodoStatus[] STATUSES = TodoStatus.values();
+    private static final String SAMPLE_REQUEST = """
+            {"title":"Warmup","description":"Parsed and validated, never saved","status":"PENDING",\
+            "dueDate":"2024-01-01"}""";
+
+    private final TodoService service;
+    private final TodoStats stats;
+    private final TodoChangeLog changeLog;
+    private final DataSource dataSource;
+    private final ReplicaRoutingDataSource routing;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final boolean enabled;
+    private final int iterations;
+    private final Duration timeout;
+    private final int connections;
+
+    public TodoWarmup(
+            TodoService service,
+            TodoStats stats,
+            TodoChangeLog changeLog,
+            DataSource dataSource,
+            ObjectProvider<ReplicaRoutingDataSource> routing,
+            ObjectMapper objectMapper,
+            Validator validator,
+            @Value("${todo.warmup.enabled:true}") boolean enabled,
+            @Value("${todo.warmup.iterations:300}") int iterations,
+            @Value("${todo.warmup.timeout:30s}") Duration timeout,
+            @Value("${todo.warmup.connections:${spring.datasource.hikari.maximum-pool-size:10}}") int connections) {
+        this.service = service;
+        this.stats = stats;
+        this.changeLog = changeLog;
+        this.dataSource = dataSource;
+        this.routing = routing.getIfAvailable();
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.enabled = enabled;
+        this.iterations = iterations;
+        this.timeout = timeout;
+        this.connections = connections;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (enabled) {
+            warmUp();
+        }
+    }
+
+    /**
+     * Returns the number of iterations run, which is less than configured when the timeout cut the warmup short.
+     */
+    int warmUp() {
+        long started = System.nanoTime();
+        long deadline = started + timeout.toNanos();
+        int done = 0;
+        try {
+            primePools();
+            while (done < iterations && System.nanoTime() < deadline) {
+                exercise(done);
+                done++;
+            }
+            log.info("Warmed up in {} ms ({} iterations, {} connections)",
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started), done, connections);
+        } catch (SQLException | IOException | RuntimeException ex) {
+            log.warn("Warmup stopped after {} iterations; starting cold", done, ex);
+        }
+        return done;
+    }
+
+    // Outside a transaction every connection comes from the primary, so replica pools are primed one by one. A
+    // replica that cannot be reached is left to the health check rather than failing the warmup.
+    private void primePools() throws SQLException {
+        prime(dataSource, connections);
+        if (routing != null) {
+            for (HikariDataSource replica : routing.replicaPools()) {
+                try {
+                    prime(replica, Math.min(connections, replica.getMaximumPoolSize()));
+                } catch (SQLException ex) {
+                    log.warn("Could not prime replica pool {}: {}", replica.getPoolName(), ex.getMessage());
+                }
+            }
+        }
+    }
+
+    // Holding every connection at once makes Hikari open them now instead of on the first burst of requests. Each
+    // one runs a query, as a LazyConnectionDataSourceProxy only borrows a pooled connection once it is used.
+    private static void prime(DataSource pool, int count) throws SQLException {
+        List<Connection> held = new ArrayList<>(count);
+        try {
+            for (int i = 0; i < count; i++) {
+                Connection connection = pool.getConnection();
+                held.add(connection);
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("SELECT 1");
+                }
+            }
+        } finally {
+            for (Connection connection : held) {
+                connection.close();
+            }
+        }
+    }
+
+    private void exercise(int iteration) throws IOException {
+        TodoStatus status = STATUSES[iteration % STATUSES.length];
+        objectMapper.writeValueAsBytes(service.page(status, null, null, false, null, PAGE_SIZE));
+        service.listVersion(status, null, null, false);
+        objectMapper.writeValueAsBytes(service.search(null, null, null, false, "warmup", PAGE_SIZE, 0));
+        objectMapper.writeValueAsBytes(changeLog.since(null, PAGE_SIZE));
+        objectMapper.writeValueAsBytes(stats.current(LocalDate.now()));
+        validator.validate(objectMapper.readValue(SAMPLE_REQUEST, TodoRequest.class));
+    }
+}
@@ -0,0 +1,2 @@
+-- Old DONE todos are flagged archived by TodoArchiver; list queries leave them out unless asked to include them.
+ALTER TABLE todos ADD COLUMN archived BOOLEAN NOT NULL DEFAULT FALSE;
@@ -0,0 +1,10 @@
+-- Single row: the replica that currently owns the due date scheduler, how long its lease lasts, and the last due
+-- date it has fired overdue reminders for. Firing a date and advancing fired_through commit together.
+CREATE TABLE due_date_scheduler (
+    id INTEGER PRIMARY KEY,
+    owner VARCHAR(64),
+    lease_until TIMESTAMP WITHOUT TIME ZONE,
+    fired_through DATE
+);
+
+INSERT INTO due_date_scheduler (id) VALUES (1);
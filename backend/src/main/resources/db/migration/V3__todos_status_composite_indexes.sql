@@ -0,0 +1,3 @@
+CREATE INDEX idx_todos_status_due_date ON todos(status, due_date);
+CREATE INDEX idx_todos_status_created_at_id ON todos(status, created_at DESC, id);
+DROP INDEX idx_todos_status;
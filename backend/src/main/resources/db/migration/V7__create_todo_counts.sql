@@ -0,0 +1,21 @@
+-- Counters are split into slots so concurrent writers rarely update the same row; readers sum the slots.
+CREATE TABLE todo_status_counts (
+    status VARCHAR(32) NOT NULL,
+    slot INTEGER NOT NULL,
+    todo_count BIGINT NOT NULL,
+    PRIMARY KEY (status, slot)
+);
+
+-- Open (not DONE) todos by due date, for the overdue and due-soon numbers.
+CREATE TABLE todo_due_date_counts (
+    due_date DATE NOT NULL,
+    slot INTEGER NOT NULL,
+    todo_count BIGINT NOT NULL,
+    PRIMARY KEY (due_date, slot)
+);
+
+INSERT INTO todo_status_counts (status, slot, todo_count)
+SELECT status, 0, COUNT(*) FROM todos GROUP BY status;
+
+INSERT INTO todo_due_date_counts (due_date, slot, todo_count)
+SELECT due_date, 0, COUNT(*) FROM todos WHERE status <> 'DONE' AND due_date IS NOT NULL GROUP BY due_date;
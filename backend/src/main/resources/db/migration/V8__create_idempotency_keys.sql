@@ -0,0 +1,15 @@
+-- Responses to mutating requests sent with an Idempotency-Key; completed_at is null while the first request runs.
+CREATE TABLE idempotency_keys (
+    idempotency_key VARCHAR(255) PRIMARY KEY,
+    fingerprint VARCHAR(64) NOT NULL,
+    created_at TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    expires_at TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    completed_at TIMESTAMP WITHOUT TIME ZONE,
+    response_status INTEGER,
+    response_content_type VARCHAR(255),
+    response_etag VARCHAR(255),
+    response_location VARCHAR(2048),
+    response_body BYTEA
+);
+
+CREATE INDEX idx_idempotency_keys_expires_at ON idempotency_keys(expires_at);
@@ -0,0 +1,23 @@
+-- Commit-ordered change sequence behind GET /api/todos/changes. Every writing transaction takes the next value
+-- just before it commits and stamps it on the rows it changed; deletes leave a tombstone carrying the same value.
+ALTER TABLE todos ADD COLUMN change_seq BIGINT NOT NULL DEFAULT 0;
+
+CREATE INDEX idx_todos_change_seq ON todos(change_seq, id);
+
+CREATE TABLE todo_tombstones (
+    id UUID PRIMARY KEY,
+    change_seq BIGINT NOT NULL,
+    deleted_at TIMESTAMP WITHOUT TIME ZONE NOT NULL
+);
+
+CREATE INDEX idx_todo_tombstones_change_seq ON todo_tombstones(change_seq, id);
+CREATE INDEX idx_todo_tombstones_deleted_at ON todo_tombstones(deleted_at);
+
+-- Single row: the last value handed out, and the newest tombstone value compaction has removed.
+CREATE TABLE todo_change_sequence (
+    id INTEGER PRIMARY KEY,
+    last_value BIGINT NOT NULL,
+    purged_through BIGINT NOT NULL
+);
+
+INSERT INTO todo_change_sequence (id, last_value, purged_through) VALUES (1, 0, 0);
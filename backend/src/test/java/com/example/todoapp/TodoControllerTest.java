@@ -1,19 +1,32 @@
 package com.example.todoapp;
 
+import com.example.todoapp.api.TodoController;
+import com.example.todoapp.api.dto.BulkItemResult;
+import com.example.todoapp.api.dto.BulkResponse;
+import com.example.todoapp.api.dto.BulkStatusUpdate;
+import com.example.todoapp.api.dto.TodoPageResponse;
 import com.example.todoapp.api.dto.TodoRequest;
 import com.example.todoapp.api.dto.TodoResponse;
 import com.example.todoapp.model.TodoStatus;
+import com.example.todoapp.repository.TodoSummary;
 import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.MappingIterator;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Base64;
 import java.util.List;
+import java.util.UUID;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
 import org.springframework.transaction.annotation.Transactional;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -34,6 +47,9 @@ class TodoControllerTest {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private MappingJackson2SmileHttpMessageConverter smileConverter;
+
     @Test
     void createAndListTodo() throws Exception {
         TodoResponse created = createTodo("Test task", TodoStatus.PENDING, "Do something important");
@@ -99,6 +115,20 @@ class TodoControllerTest {
                 .andExpect(status().isNotFound());
     }
 
+    @Test
+    void statusUpdateOfUnknownTodoIsNotFound() throws Exception {
+        mockMvc.perform(post("/api/todos/" + UUID.randomUUID() + "/status")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"status\":\"DONE\"}"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void deleteOfUnknownTodoIsNotFound() throws Exception {
+        mockMvc.perform(delete("/api/todos/" + UUID.randomUUID()))
+                .andExpect(status().isNotFound());
+    }
+
     @Test
     void validationFailsWithoutTitle() throws Exception {
         TodoRequest request = new TodoRequest();
@@ -126,6 +156,247 @@ class TodoControllerTest {
         assertThat(todos).allMatch(t -> t.getStatus() == TodoStatus.DONE);
     }
 
+    @Test
+    void cachedReadsAreInvalidatedByWrites() throws Exception {
+        TodoResponse created = createTodo("Cached", TodoStatus.PENDING, null);
+        assertThat(listByStatus(TodoStatus.IN_PROGRESS)).extracting(TodoResponse::getId)
+                .doesNotContain(created.getId());
+        mockMvc.perform(get("/api/todos/" + created.getId())).andExpect(status().isOk());
+
+        mockMvc.perform(post("/api/todos/" + created.getId() + "/status")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"status\":\"IN_PROGRESS\"}"))
+                .andExpect(status().isOk());
+
+        assertThat(listByStatus(TodoStatus.IN_PROGRESS)).extracting(TodoResponse::getId)
+                .contains(created.getId());
+        MvcResult result = mockMvc.perform(get("/api/todos/" + created.getId()))
+                .andExpect(status().isOk())
+                .andReturn();
+        assertThat(objectMapper.readValue(result.getResponse().getContentAsString(), TodoResponse.class)
+                .getStatus()).isEqualTo(TodoStatus.IN_PROGRESS);
+
+        mockMvc.perform(delete("/api/todos/" + created.getId())).andExpect(status().isNoContent());
+        assertThat(listByStatus(TodoStatus.IN_PROGRESS)).extracting(TodoResponse::getId)
+                .doesNotContain(created.getId());
+    }
+
+    @Test
+    void conditionalRequestsUseEntityTags() throws Exception {
+        TodoResponse created = createTodo("Versioned", TodoStatus.PENDING, null);
+
+        String itemTag = mockMvc.perform(get("/api/todos/" + created.getId()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        assertThat(itemTag).isNotBlank();
+        mockMvc.perform(get("/api/todos/" + created.getId()).header("If-None-Match", itemTag))
+                .andExpect(status().isNotModified());
+
+        String listTag = mockMvc.perform(get("/api/todos").param("status", "PENDING"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        mockMvc.perform(get("/api/todos").param("status", "PENDING").header("If-None-Match", listTag))
+                .andExpect(status().isNotModified());
+
+        TodoRequest update = new TodoRequest();
+        update.setTitle("Versioned again");
+        mockMvc.perform(put("/api/todos/" + created.getId())
+                        .header("If-Match", "\"stale\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(update)))
+                .andExpect(status().isPreconditionFailed());
+        String newTag = mockMvc.perform(put("/api/todos/" + created.getId())
+                        .header("If-Match", itemTag)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(update)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        assertThat(newTag).isNotEqualTo(itemTag);
+
+        mockMvc.perform(get("/api/todos").param("status", "PENDING").header("If-None-Match", listTag))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void cursorPaginationWalksAllItemsOnce() throws Exception {
+        List<UUID> createdIds = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            createdIds.add(createTodo("Paged " + i, TodoStatus.PENDING, null).getId());
+        }
+
+        List<UUID> seen = new ArrayList<>();
+        String cursor = null;
+        do {
+            var request = get("/api/todos/page").param("limit", "2");
+            if (cursor != null) {
+                request.param("cursor", cursor);
+            }
+            MvcResult result = mockMvc.perform(request)
+                    .andExpect(status().isOk())
+                    .andReturn();
+            TodoPageResponse page =
+                    objectMapper.readValue(result.getResponse().getContentAsString(), TodoPageResponse.class);
+            assertThat(page.getItems()).hasSizeLessThanOrEqualTo(2);
+            page.getItems().forEach(item -> seen.add(item.getId()));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        assertThat(seen).doesNotHaveDuplicates().containsAll(createdIds);
+        assertThat(seen.getFirst()).isEqualTo(createdIds.getLast());
+    }
+
+    @Test
+    void textSearchRanksTitleMatchesFirstAndPages() throws Exception {
+        TodoResponse inDescription = createTodo("Call the bank", TodoStatus.PENDING, "Ask about the zephyr account");
+        TodoResponse inTitle = createTodo("Zephyr rollout", TodoStatus.PENDING, null);
+        createTodo("Unrelated", TodoStatus.PENDING, "Nothing to see");
+
+        MvcResult result = mockMvc.perform(get("/api/todos").param("q", "ZEPHYR"))
+                .andExpect(status().isOk())
+                .andReturn();
+        List<TodoResponse> matches = objectMapper.readValue(
+                result.getResponse().getContentAsString(), new TypeReference<>() {});
+        assertThat(matches).extracting(TodoResponse::getId).containsExactly(inTitle.getId(), inDescription.getId());
+
+        MvcResult second = mockMvc.perform(get("/api/todos")
+                        .param("q", "zephyr")
+                        .param("limit", "1")
+                        .param("offset", "1"))
+                .andExpect(status().isOk())
+                .andReturn();
+        List<TodoResponse> page = objectMapper.readValue(
+                second.getResponse().getContentAsString(), new TypeReference<>() {});
+        assertThat(page).extracting(TodoResponse::getId).containsExactly(inDescription.getId());
+
+        mockMvc.perform(get("/api/todos").param("q", "zephyr").param("limit", "0"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void summaryViewTruncatesDescriptions() throws Exception {
+        TodoResponse longOne = createTodo("Long notes", TodoStatus.PENDING, "x".repeat(300));
+        TodoResponse shortOne = createTodo("Short notes", TodoStatus.PENDING, "brief");
+
+        MvcResult result = mockMvc.perform(get("/api/todos").param("view", "summary"))
+                .andExpect(status().isOk())
+                .andReturn();
+        List<TodoSummary> summaries = objectMapper.readValue(
+                result.getResponse().getContentAsString(), new TypeReference<>() {});
+        TodoSummary truncated = summaries.stream()
+                .filter(t -> t.id().equals(longOne.getId()))
+                .findFirst().orElseThrow();
+        assertThat(truncated.description()).hasSize(200);
+        assertThat(truncated.descriptionTruncated()).isTrue();
+        TodoSummary complete = summaries.stream()
+                .filter(t -> t.id().equals(shortOne.getId()))
+                .findFirst().orElseThrow();
+        assertThat(complete.description()).isEqualTo("brief");
+        assertThat(complete.descriptionTruncated()).isFalse();
+
+        String fullTag = mockMvc.perform(get("/api/todos")).andReturn().getResponse().getHeader("ETag");
+        String summaryTag = result.getResponse().getHeader("ETag");
+        assertThat(summaryTag).isNotNull().isNotEqualTo(fullTag);
+        mockMvc.perform(get("/api/todos").param("view", "summary").header("If-None-Match", summaryTag))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void invalidCursorIsRejected() throws Exception {
+        mockMvc.perform(get("/api/todos/page").param("cursor", "not-a-cursor"))
+                .andExpect(status().isBadRequest());
+        // Parses, but lies outside the range of Instant.
+        String outOfRange = Base64.getUrlEncoder().encodeToString(
+                ("9223372036854775807:999999999:" + UUID.randomUUID()).getBytes(StandardCharsets.UTF_8));
+        mockMvc.perform(get("/api/todos/page").param("cursor", outOfRange))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void exportStreamsNdjson() throws Exception {
+        TodoResponse first = createTodo("Export one", TodoStatus.PENDING, "first");
+        TodoResponse second = createTodo("Export two", TodoStatus.DONE, "second");
+
+        MvcResult result = mockMvc.perform(get("/api/todos/export"))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        assertThat(result.getResponse().getContentType()).startsWith("application/x-ndjson");
+        List<UUID> ids = new ArrayList<>();
+        for (String line : result.getResponse().getContentAsString().split("\n")) {
+            assertThat(line).startsWith("{").endsWith("}");
+            ids.add(objectMapper.readValue(line, TodoResponse.class).getId());
+        }
+        assertThat(ids).contains(first.getId(), second.getId());
+    }
+
+    @Test
+    void smileIsNegotiatedForListsAndExport() throws Exception {
+        TodoResponse created = createTodo("Smile", TodoStatus.IN_PROGRESS, "binary");
+        ObjectMapper smile = smileConverter.getObjectMapper();
+
+        MvcResult list = mockMvc.perform(get("/api/todos").accept(TodoController.SMILE))
+                .andExpect(status().isOk())
+                .andReturn();
+        assertThat(list.getResponse().getContentType()).isEqualTo(TodoController.SMILE);
+        List<TodoResponse> todos = smile.readValue(
+                list.getResponse().getContentAsByteArray(), new TypeReference<>() {});
+        assertThat(todos).extracting(TodoResponse::getId).contains(created.getId());
+
+        MvcResult export = mockMvc.perform(get("/api/todos/export").accept(TodoController.SMILE))
+                .andExpect(status().isOk())
+                .andReturn();
+        assertThat(export.getResponse().getContentType()).isEqualTo(TodoController.SMILE);
+        try (MappingIterator<TodoResponse> rows = smile.readerFor(TodoResponse.class)
+                .readValues(export.getResponse().getContentAsByteArray())) {
+            assertThat(rows.readAll()).extracting(TodoResponse::getUpdatedAt).contains(created.getUpdatedAt());
+        }
+    }
+
+    @Test
+    void bulkEndpointsReportPerItemResults() throws Exception {
+        TodoRequest valid = new TodoRequest();
+        valid.setTitle("Bulk one");
+        TodoRequest invalid = new TodoRequest();
+        invalid.setDescription("No title");
+        TodoRequest other = new TodoRequest();
+        other.setTitle("Bulk two");
+
+        BulkResponse created = bulk(post("/api/todos/bulk"), List.of(valid, invalid, other));
+        assertThat(created.getSucceeded()).isEqualTo(2);
+        assertThat(created.getResults()).extracting(BulkItemResult::getStatus).containsExactly(201, 400, 201);
+        UUID firstId = created.getResults().get(0).getId();
+
+        BulkStatusUpdate done = new BulkStatusUpdate();
+        done.setId(firstId);
+        done.setStatus(TodoStatus.DONE);
+        BulkStatusUpdate missing = new BulkStatusUpdate();
+        missing.setId(UUID.randomUUID());
+        missing.setStatus(TodoStatus.DONE);
+        BulkResponse statuses = bulk(post("/api/todos/bulk/status"), List.of(done, missing));
+        assertThat(statuses.getResults()).extracting(BulkItemResult::getStatus).containsExactly(200, 404);
+        assertThat(statuses.getResults().getFirst().getTodo().getStatus()).isEqualTo(TodoStatus.DONE);
+
+        BulkResponse deleted = bulk(post("/api/todos/bulk/delete"), List.of(firstId, missing.getId()));
+        assertThat(deleted.getResults()).extracting(BulkItemResult::getStatus).containsExactly(204, 404);
+        mockMvc.perform(get("/api/todos/" + firstId)).andExpect(status().isNotFound());
+    }
+
+    private List<TodoResponse> listByStatus(TodoStatus status) throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/todos").param("status", status.name()))
+                .andExpect(status().isOk())
+                .andReturn();
+        return objectMapper.readValue(result.getResponse().getContentAsString(), new TypeReference<>() {});
+    }
+
+    private BulkResponse bulk(MockHttpServletRequestBuilder request, Object body) throws Exception {
+        MvcResult result = mockMvc.perform(request
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(body)))
+                .andExpect(status().isOk())
+                .andReturn();
+        return objectMapper.readValue(result.getResponse().getContentAsString(), BulkResponse.class);
+    }
+
     private TodoResponse createTodo(String title, TodoStatus status, String description) throws Exception {
         TodoRequest request = new TodoRequest();
         request.setTitle(title);
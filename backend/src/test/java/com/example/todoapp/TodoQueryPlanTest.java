@@ -0,0 +1,77 @@
+package com.example.todoapp;
+
+import com.example.todoapp.model.TodoStatus;
+import com.example.todoapp.repository.TodoFilter;
+import com.example.todoapp.repository.TodoRepository;
+import java.time.LocalDate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties =
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.example.todoapp.CapturingStatementInspector")
+@Transactional
+class TodoQueryPlanTest {
+
+    @Autowired
+    private TodoRepository repository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void reset() {
+        CapturingStatementInspector.clear();
+    }
+
+    @Test
+    void unfilteredSearchOnlyExcludesArchivedTodos() {
+        repository.search(new TodoFilter(null, null, null));
+
+        assertThat(CapturingStatementInspector.last()).containsIgnoringCase("where not(t1_0.archived) order by");
+
+        repository.search(new TodoFilter(null, null, null, true));
+
+        assertThat(CapturingStatementInspector.last()).doesNotContainIgnoringCase("where");
+    }
+
+    @Test
+    void statusFilterUsesCompositeIndex() {
+        repository.searchPage(new TodoFilter(TodoStatus.PENDING, null, null), null, 20);
+
+        String sql = CapturingStatementInspector.last();
+        assertThat(sql).doesNotContainIgnoringCase("is null");
+        assertThat(explain(sql, "PENDING", 20)).contains("IDX_TODOS_STATUS_");
+    }
+
+    @Test
+    void statusAndDateRangeUseStatusDueDateIndex() {
+        LocalDate from = LocalDate.of(2024, 1, 1);
+        LocalDate to = LocalDate.of(2024, 1, 31);
+        repository.search(new TodoFilter(TodoStatus.DONE, from, to));
+
+        String sql = CapturingStatementInspector.last();
+        assertThat(sql).doesNotContainIgnoringCase("is null");
+        assertThat(explain(sql, "DONE", from, to)).contains("IDX_TODOS_STATUS_DUE_DATE");
+    }
+
+    @Test
+    void dateRangeUsesDueDateIndex() {
+        LocalDate from = LocalDate.of(2024, 1, 1);
+        repository.searchVersion(new TodoFilter(null, from, null));
+
+        String sql = CapturingStatementInspector.last();
+        assertThat(sql).doesNotContainIgnoringCase("is null");
+        assertThat(explain(sql, from)).contains("IDX_TODOS_DUE_DATE");
+    }
+
+    private String explain(String sql, Object... args) {
+        return String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + sql, String.class, args)).toUpperCase();
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.todoapp.api;
+
+import com.example.todoapp.api.dto.TodoRequest;
+import com.example.todoapp.api.dto.TodoResponse;
+import com.example.todoapp.service.TodoChangedEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Not @Transactional: events are only published once the write commits.
+@SpringBootTest
+@AutoConfigureMockMvc
+class TodoChangeFeedTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void subscribersReceiveCommittedChangesAndResumeFromLastEventId() throws Exception {
+        MvcResult live = subscribe(null);
+
+        TodoResponse first = create("Feed first");
+        String firstId = lastEventId(awaitContent(live, first.getId().toString()));
+        TodoResponse second = create("Feed second");
+        awaitContent(live, second.getId().toString());
+
+        MvcResult resumed = subscribe(firstId);
+        String replayed = awaitContent(resumed, second.getId().toString());
+        assertThat(replayed).contains("event:todo").doesNotContain(first.getId().toString());
+
+        MvcResult unknown = subscribe("not-an-id");
+        awaitContent(unknown, "event:reset");
+        // Same position, but issued by another instance.
+        MvcResult foreign = subscribe("other-" + firstId.substring(firstId.lastIndexOf('-') + 1));
+        awaitContent(foreign, "event:reset");
+
+        mockMvc.perform(delete("/api/todos/" + first.getId())).andExpect(status().isNoContent());
+        mockMvc.perform(delete("/api/todos/" + second.getId())).andExpect(status().isNoContent());
+        assertThat(awaitContent(live, "\"DELETED\"")).contains(first.getId().toString());
+    }
+
+    @Test
+    void slowSubscribersAreDroppedWithoutBlockingPublishers() throws Exception {
+        TodoChangeFeed feed = new TodoChangeFeed(objectMapper, 2, 10, Duration.ofMinutes(1), Duration.ofMinutes(1));
+        CountDownLatch unblock = new CountDownLatch(1);
+        AtomicBoolean completed = new AtomicBoolean();
+        SseEmitter stuck = new SseEmitter() {
+            @Override
+            public void send(SseEventBuilder builder) {
+                try {
+                    unblock.await();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+
+            @Override
+            public synchronized void complete() {
+                completed.set(true);
+            }
+        };
+        try {
+            feed.subscribe(stuck, null);
+            long started = System.nanoTime();
+            for (int i = 0; i < 10; i++) {
+                feed.onChange(new TodoChangedEvent(TodoChangedEvent.Type.DELETED, UUID.randomUUID(), null));
+            }
+            assertThat(Duration.ofNanos(System.nanoTime() - started)).isLessThan(Duration.ofSeconds(1));
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (!completed.get() && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            assertThat(completed).isTrue();
+        } finally {
+            unblock.countDown();
+            feed.destroy();
+        }
+    }
+
+    private MvcResult subscribe(String lastEventId) throws Exception {
+        var request = get("/api/todos/events").accept(MediaType.TEXT_EVENT_STREAM);
+        if (lastEventId != null) {
+            request.header("Last-Event-ID", lastEventId);
+        }
+        return mockMvc.perform(request).andExpect(request().asyncStarted()).andReturn();
+    }
+
+    private TodoResponse create(String title) throws Exception {
+        TodoRequest body = new TodoRequest();
+        body.setTitle(title);
+        String json = mockMvc.perform(post("/api/todos")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(body)))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readValue(json, TodoResponse.class);
+    }
+
+    private static String awaitContent(MvcResult result, String expected) throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        String content = result.getResponse().getContentAsString();
+        while (!content.contains(expected) && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+            content = result.getResponse().getContentAsString();
+        }
+        assertThat(content).contains(expected);
+        return content;
+    }
+
+    private static String lastEventId(String content) {
+        String id = null;
+        for (String line : content.split("\n")) {
+            if (line.startsWith("id:")) {
+                id = line.substring(3).trim();
+            }
+        }
+        return id;
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.todoapp.config;
+
+import com.example.todoapp.config.AdmissionControl.Priority;
+import com.example.todoapp.exception.ServiceUnavailableException;
+import com.example.todoapp.exception.TooManyRequestsException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.offset;
+
+class AdmissionControlTest {
+
+    private final AtomicLong now = new AtomicLong();
+
+    @Test
+    void rateLimitAllowsBurstThenRefillsAtTheConfiguredRate() {
+        ClientRateLimiter limiter = new ClientRateLimiter(10, 3, 100, now::get);
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(limiter.tryAcquire("a")).isZero();
+        }
+        assertThat(limiter.tryAcquire("a")).isEqualTo(Duration.ofMillis(100));
+        assertThat(limiter.tryAcquire("b")).isZero();
+
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(100));
+        assertThat(limiter.tryAcquire("a")).isZero();
+        assertThat(limiter.tryAcquire("a")).isPositive();
+    }
+
+    @Test
+    void fullScansAreShedBeforeReadsAndWrites() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(10, 1, 100, millis(100), now::get);
+
+        for (int i = 0; i < 5; i++) {
+            assertThat(limit.tryAcquire(Priority.FULL_SCAN.share())).isTrue();
+        }
+        assertThat(limit.tryAcquire(Priority.FULL_SCAN.share())).isFalse();
+        for (int i = 0; i < 3; i++) {
+            assertThat(limit.tryAcquire(Priority.READ.share())).isTrue();
+        }
+        assertThat(limit.tryAcquire(Priority.READ.share())).isFalse();
+        assertThat(limit.tryAcquire(Priority.WRITE.share())).isTrue();
+        assertThat(limit.tryAcquire(Priority.WRITE.share())).isTrue();
+        assertThat(limit.tryAcquire(Priority.WRITE.share())).isFalse();
+    }
+
+    @Test
+    void limitShrinksOnSlowResponsesAndGrowsWhileSaturated() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(10, 1, 100, millis(100), now::get);
+
+        limit.tryAcquire(1.0);
+        limit.tryAcquire(1.0);
+        limit.release(millis(500), false);
+        // A second slow response in the same window is part of the same overload.
+        limit.release(millis(500), false);
+        assertThat(limit.limit()).isEqualTo(9.0);
+
+        now.addAndGet(millis(100));
+        limit.tryAcquire(1.0);
+        limit.release(0, true);
+        assertThat(limit.limit()).isCloseTo(8.1, offset(1e-9));
+
+        for (int i = 0; i < 8; i++) {
+            limit.tryAcquire(1.0);
+        }
+        limit.release(millis(10), false);
+        assertThat(limit.limit()).isGreaterThan(8.1);
+    }
+
+    @Test
+    void rejectsWithRetryAfterBeforeTheHandlerRuns() throws Exception {
+        AdmissionControl admission = new AdmissionControl(
+                new ClientRateLimiter(1, 1, 100, now::get),
+                new AdaptiveConcurrencyLimit(1, 1, 1, millis(100), now::get));
+        MockHttpServletRequest first = new MockHttpServletRequest("POST", "/api/todos");
+        first.setRemoteAddr("10.0.0.1");
+        MockHttpServletRequest other = new MockHttpServletRequest("GET", "/api/todos");
+        other.setRemoteAddr("10.0.0.2");
+
+        assertThat(admission.preHandle(first, new MockHttpServletResponse(), null)).isTrue();
+        assertThatThrownBy(() -> admission.preHandle(first, new MockHttpServletResponse(), null))
+                .isInstanceOfSatisfying(TooManyRequestsException.class,
+                        ex -> assertThat(ex.getRetryAfter()).isEqualTo(Duration.ofSeconds(1)));
+        assertThatThrownBy(() -> admission.preHandle(other, new MockHttpServletResponse(), null))
+                .isInstanceOf(ServiceUnavailableException.class);
+
+        admission.afterCompletion(first, new MockHttpServletResponse(), null, null);
+        now.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        assertThat(admission.preHandle(other, new MockHttpServletResponse(), null)).isTrue();
+    }
+
+    @Test
+    void streamedExportsDoNotCountAsSlowResponses() throws Exception {
+        // Every real request is slower than a 1ns target.
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(10, 1, 100, 1, now::get);
+        AdmissionControl admission = new AdmissionControl(new ClientRateLimiter(100, 100, 100, now::get), limit);
+
+        MockHttpServletRequest export = new MockHttpServletRequest("GET", "/api/todos/export");
+        admission.preHandle(export, new MockHttpServletResponse(), null);
+        admission.afterCompletion(export, new MockHttpServletResponse(), null, null);
+        assertThat(limit.limit()).isEqualTo(10.0);
+        assertThat(limit.inFlight()).isZero();
+
+        MockHttpServletRequest list = new MockHttpServletRequest("GET", "/api/todos");
+        admission.preHandle(list, new MockHttpServletResponse(), null);
+        admission.afterCompletion(list, new MockHttpServletResponse(), null, null);
+        assertThat(limit.limit()).isEqualTo(9.0);
+    }
+
+    @Test
+    void unfilteredListsAreFullScans() {
+        assertThat(AdmissionControl.priority(new MockHttpServletRequest("GET", "/api/todos")))
+                .isEqualTo(Priority.FULL_SCAN);
+        MockHttpServletRequest filtered = new MockHttpServletRequest("GET", "/api/todos");
+        filtered.setParameter("status", "DONE");
+        assertThat(AdmissionControl.priority(filtered)).isEqualTo(Priority.READ);
+        assertThat(AdmissionControl.priority(new MockHttpServletRequest("DELETE", "/api/todos/1")))
+                .isEqualTo(Priority.WRITE);
+    }
+
+    private static long millis(long millis) {
+        return TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.todoapp.config;
+
+import com.example.todoapp.api.dto.TodoRequest;
+import com.example.todoapp.api.dto.TodoResponse;
+import com.example.todoapp.model.Todo;
+import com.example.todoapp.repository.IdempotencyRecordRepository;
+import com.example.todoapp.repository.TodoRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+// Not @Transactional: claims are committed in their own transactions and concurrent requests must see them.
+@SpringBootTest
+@AutoConfigureMockMvc
+class IdempotencyTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TodoRepository todoRepository;
+
+    @Autowired
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    private final String title = "Idempotent " + UUID.randomUUID();
+
+    @AfterEach
+    void cleanUp() throws Exception {
+        for (Todo todo : created()) {
+            mockMvc.perform(delete("/api/todos/" + todo.getId()));
+        }
+        idempotencyRecordRepository.deleteAll();
+    }
+
+    @Test
+    void retriesReplayTheFirstResponse() throws Exception {
+        String key = UUID.randomUUID().toString();
+
+        MockHttpServletResponse first = create(key, title);
+        MockHttpServletResponse retry = create(key, title);
+
+        assertThat(first.getStatus()).isEqualTo(201);
+        assertThat(first.getHeader(IdempotencyInterceptor.REPLAYED_HEADER)).isNull();
+        assertThat(retry.getStatus()).isEqualTo(201);
+        assertThat(retry.getHeader(IdempotencyInterceptor.REPLAYED_HEADER)).isEqualTo("true");
+        assertThat(retry.getHeader("ETag")).isEqualTo(first.getHeader("ETag"));
+        assertThat(retry.getContentAsString()).isEqualTo(first.getContentAsString());
+        assertThat(created()).hasSize(1);
+
+        assertThat(create(key, title + " changed").getStatus()).isEqualTo(422);
+        assertThat(create(UUID.randomUUID().toString(), title).getStatus()).isEqualTo(201);
+        assertThat(created()).hasSize(2);
+    }
+
+    @Test
+    void concurrentDuplicatesCreateOneTodo() throws Exception {
+        String key = UUID.randomUUID().toString();
+        int requests = 8;
+        List<Future<MockHttpServletResponse>> futures = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(requests)) {
+            for (int i = 0; i < requests; i++) {
+                futures.add(executor.submit(() -> create(key, title)));
+            }
+        }
+
+        List<UUID> ids = new ArrayList<>();
+        for (Future<MockHttpServletResponse> future : futures) {
+            MockHttpServletResponse response = future.get();
+            assertThat(response.getStatus()).isEqualTo(201);
+            ids.add(objectMapper.readValue(response.getContentAsString(), TodoResponse.class).getId());
+        }
+        assertThat(ids).containsOnly(ids.getFirst());
+        assertThat(created()).hasSize(1);
+    }
+
+    private MockHttpServletResponse create(String key, String title) throws Exception {
+        TodoRequest request = new TodoRequest();
+        request.setTitle(title);
+        return mockMvc.perform(post("/api/todos")
+                        .header("Idempotency-Key", key)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andReturn()
+                .getResponse();
+    }
+
+    private List<Todo> created() {
+        return todoRepository.findAll().stream()
+                .filter(todo -> todo.getTitle().startsWith(title))
+                .toList();
+    }
+}
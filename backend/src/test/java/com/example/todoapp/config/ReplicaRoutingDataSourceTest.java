@@ -0,0 +1,88 @@
+package com.example.todoapp.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import java.sql.Connection;
+import java.time.Duration;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReplicaRoutingDataSourceTest {
+
+    private static final String PRIMARY = "jdbc:h2:mem:routing-primary";
+    private static final String REPLICA = "jdbc:h2:mem:routing-replica";
+
+    @Test
+    void busyReplicaFallsBackToThePrimaryWithoutLeavingRotation() throws Exception {
+        HikariDataSource replica = new HikariDataSource();
+        replica.setPoolName("busy-replica");
+        replica.setJdbcUrl(REPLICA + ";DB_CLOSE_DELAY=-1");
+        replica.setMaximumPoolSize(1);
+        replica.setConnectionTimeout(250);
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(
+                new DriverManagerDataSource(PRIMARY + ";DB_CLOSE_DELAY=-1"), List.of(replica), Duration.ofMinutes(1), Duration.ZERO);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        try {
+            awaitHealthy(routing);
+            try (Connection held = routing.getConnection()) {
+                assertThat(held.getMetaData().getURL()).isEqualTo(REPLICA);
+                try (Connection fallback = routing.getConnection()) {
+                    assertThat(fallback.getMetaData().getURL()).isEqualTo(PRIMARY);
+                }
+            }
+            assertThat(routing.healthyReplicas()).isEqualTo(1);
+        } finally {
+            TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+            routing.destroy();
+        }
+    }
+
+    @Test
+    void gatedReplicaFallsBackToThePrimaryOnceItsPermitsAreTaken() throws Exception {
+        HikariDataSource replica = new HikariDataSource();
+        replica.setPoolName("gated-replica");
+        replica.setJdbcUrl(REPLICA + ";DB_CLOSE_DELAY=-1");
+        replica.setMaximumPoolSize(5);
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(
+                new DriverManagerDataSource(PRIMARY + ";DB_CLOSE_DELAY=-1"),
+                List.of(replica),
+                pool -> new DbConcurrencyGate(pool.getPoolName(), 1, 10, Duration.ofMillis(100)),
+                Duration.ofMinutes(1),
+                Duration.ZERO);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        try {
+            awaitHealthy(routing);
+            try (Connection held = routing.getConnection()) {
+                assertThat(held.getMetaData().getURL()).isEqualTo(REPLICA);
+                try (Connection fallback = routing.getConnection()) {
+                    assertThat(fallback.getMetaData().getURL()).isEqualTo(PRIMARY);
+                }
+            }
+            assertThat(routing.healthyReplicas()).isEqualTo(1);
+        } finally {
+            TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+            routing.destroy();
+        }
+    }
+
+    @Test
+    void explicitCredentialsGoToThePrimary() throws Exception {
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(
+                new DriverManagerDataSource("jdbc:h2:mem:routing-credentials"), List.of(), Duration.ofMinutes(1), Duration.ZERO);
+        try (Connection connection = routing.getConnection("app", "secret")) {
+            assertThat(connection.getMetaData().getUserName()).isEqualToIgnoringCase("app");
+        } finally {
+            routing.destroy();
+        }
+    }
+
+    private static void awaitHealthy(ReplicaRoutingDataSource routing) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (routing.healthyReplicas() == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+}
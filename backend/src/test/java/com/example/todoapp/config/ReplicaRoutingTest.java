@@ -0,0 +1,155 @@
+package com.example.todoapp.config;
+
+import com.example.todoapp.api.dto.TodoRequest;
+import com.example.todoapp.api.dto.TodoResponse;
+import com.example.todoapp.repository.TodoRepository;
+import com.example.todoapp.service.TodoCache;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.Cookie;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.function.Function;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// A second H2 database stands in for the replica. Nothing replicates into it, so where a read went shows in
+// whether it can see a row that was just written to the primary.
+@SpringBootTest(properties = {
+        "todo.replicas.urls=" + ReplicaRoutingTest.REPLICA_URL + ",jdbc:h2:tcp://localhost:1/unreachable",
+        "todo.replicas.username=sa",
+        "todo.replicas.password=password",
+        "todo.replicas.connection-timeout=250ms",
+        "todo.replicas.health-check-interval=PT0.1S",
+        "todo.replicas.read-your-writes=30s",
+        "todo.cache.enabled=false",
+        "todo.warmup.enabled=true",
+        "todo.warmup.iterations=2",
+        "todo.warmup.connections=3"
+})
+@AutoConfigureMockMvc
+class ReplicaRoutingTest {
+
+    static final String REPLICA_URL = "jdbc:h2:mem:replica;MODE=PostgreSQL;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ReplicaRoutingDataSource routing;
+
+    @Autowired
+    private TodoRepository repository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeAll
+    static void migrateReplica() {
+        Flyway.configure()
+                .dataSource(REPLICA_URL, "sa", "password")
+                .locations("classpath:db/migration")
+                .load()
+                .migrate();
+    }
+
+    @BeforeEach
+    void awaitHealthyReplica() throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (routing.healthyReplicas() == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+        assertThat(routing.healthyReplicas()).isEqualTo(1);
+    }
+
+    @Test
+    void readsGoToTheReplicaUnlessTheClientJustWrote() throws Exception {
+        MvcResult created = mockMvc.perform(post("/api/todos")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request("Routed"))))
+                .andExpect(status().isCreated())
+                .andReturn();
+        UUID id = objectMapper.readValue(created.getResponse().getContentAsString(), TodoResponse.class).getId();
+        Cookie pin = created.getResponse().getCookie(ReadYourWritesFilter.COOKIE);
+        assertThat(pin).isNotNull();
+
+        try {
+            mockMvc.perform(get("/api/todos/" + id)).andExpect(status().isNotFound());
+            mockMvc.perform(get("/api/todos/" + id).cookie(pin)).andExpect(status().isOk());
+
+            Cookie expired = new Cookie(ReadYourWritesFilter.COOKIE, Long.toString(System.currentTimeMillis() - 1));
+            mockMvc.perform(get("/api/todos/" + id).cookie(expired)).andExpect(status().isNotFound());
+            Cookie forged = new Cookie(ReadYourWritesFilter.COOKIE, "9999999999999");
+            mockMvc.perform(get("/api/todos/" + id).cookie(forged)).andExpect(status().isNotFound());
+        } finally {
+            mockMvc.perform(delete("/api/todos/" + id)).andExpect(status().isNoContent());
+        }
+    }
+
+    @Test
+    void cacheLoadsReadThePrimaryAndUncachedReadsTheReplica() throws Exception {
+        MvcResult created = mockMvc.perform(post("/api/todos")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request("Cached"))))
+                .andExpect(status().isCreated())
+                .andReturn();
+        UUID id = objectMapper.readValue(created.getResponse().getContentAsString(), TodoResponse.class).getId();
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        Function<UUID, TodoResponse> load = key -> readOnly.execute(status ->
+                repository.findById(key).map(TodoResponse::from).orElse(null));
+
+        try {
+            // The same read-only load outside the cache goes to the replica, which never saw the write.
+            assertThat(load.apply(id)).isNull();
+            TodoCache cache = new TodoCache(
+                    true, 100, Duration.ofMinutes(1), 100, Duration.ofMinutes(1), new SimpleMeterRegistry());
+            assertThat(cache.getItem(id, load)).extracting(TodoResponse::getId).isEqualTo(id);
+            TodoCache uncached = new TodoCache(
+                    false, 100, Duration.ofMinutes(1), 100, Duration.ofMinutes(1), new SimpleMeterRegistry());
+            assertThat(uncached.getItem(id, load)).isNull();
+        } finally {
+            mockMvc.perform(delete("/api/todos/" + id)).andExpect(status().isNoContent());
+        }
+    }
+
+    @Test
+    void warmupPrimesTheReachableReplicaPool() {
+        // The warmup ran at startup; the unreachable replica only cost it a logged warning.
+        assertThat(routing.replicaPools().getFirst().getHikariPoolMXBean().getTotalConnections())
+                .isGreaterThanOrEqualTo(3);
+    }
+
+    @Test
+    void unreachableReplicasAreKeptOutOfRotation() throws Exception {
+        for (int i = 0; i < 4; i++) {
+            mockMvc.perform(get("/api/todos/page")).andExpect(status().isOk());
+        }
+        assertThat(routing.healthyReplicas()).isEqualTo(1);
+    }
+
+    private static TodoRequest request(String title) {
+        TodoRequest request = new TodoRequest();
+        request.setTitle(title);
+        return request;
+    }
+}
@@ -0,0 +1,175 @@
+package com.example.todoapp.integration;
+
+import com.example.todoapp.TodoApplication;
+import com.example.todoapp.config.ReplicaRoutingDataSource;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Boots the backend once per request-execution mode against the external Postgres and drives the same
+ * read/write mix through each, logging throughput and latency percentiles side by side. The last run adds a read
+ * replica (the same database under a second URL) to check that its pool sits behind its own gate.
+ */
+class VirtualThreadsLoadIT {
+
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadsLoadIT.class);
+
+    private static final String HOST = System.getenv().getOrDefault("TEST_DB_HOST", "localhost");
+    private static final String PORT = System.getenv().getOrDefault("TEST_DB_PORT", "55432");
+    private static final String DB = System.getenv().getOrDefault("TEST_DB_NAME", "todoapp_int");
+    private static final String USER = System.getenv().getOrDefault("TEST_DB_USER", "todo");
+    private static final String PASSWORD = System.getenv().getOrDefault("TEST_DB_PASSWORD", "todo");
+    private static final String URL = "jdbc:postgresql://" + HOST + ":" + PORT + "/" + DB;
+
+    private static final int REQUESTS = Integer.getInteger("load.requests", 2000);
+    private static final int CONCURRENCY = Integer.getInteger("load.concurrency", 200);
+
+    @Test
+    void compareVirtualAndPlatformThreads() throws Exception {
+        LoadResult platform = run(false);
+        LoadResult virtual = run(true);
+        LoadResult replicas = run(true,
+                "todo.replicas.urls=" + URL,
+                "todo.replicas.pool-size=5",
+                "todo.replicas.health-check-interval=PT1S");
+
+        log.info("platform threads: {}", platform);
+        log.info("virtual threads:  {}", virtual);
+        log.info("virtual threads with a replica: {}", replicas);
+        assertThat(platform.failures()).isZero();
+        assertThat(virtual.failures()).isZero();
+        assertThat(replicas.failures()).isZero();
+    }
+
+    private LoadResult run(boolean virtualThreads, String... extraProperties) throws Exception {
+        // Passed as arguments so they win over the H2 settings in the test application.yml.
+        String[] arguments = Stream.concat(Stream.of(
+                        "server.port=0",
+                        "spring.datasource.url=" + URL,
+                        "spring.datasource.driver-class-name=org.postgresql.Driver",
+                        "spring.datasource.username=" + USER,
+                        "spring.datasource.password=" + PASSWORD,
+                        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.PostgreSQLDialect",
+                        "spring.datasource.hikari.maximum-pool-size=10",
+                        "spring.threads.virtual.enabled=" + virtualThreads,
+                        "todo.db-gate.enabled=" + virtualThreads,
+                        "server.tomcat.threads.max=50",
+                        "todo.cache.enabled=false"), Stream.of(extraProperties))
+                .map(property -> "--" + property)
+                .toArray(String[]::new);
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(TodoApplication.class)
+                .run(arguments)) {
+            String base = "http://localhost:" + context.getEnvironment().getProperty("local.server.port") + "/api/todos";
+            List<String> created = Collections.synchronizedList(new ArrayList<>());
+            try {
+                LoadResult result = drive(base, created);
+                if (extraProperties.length > 0) {
+                    assertReplicaGated(context);
+                }
+                return result;
+            } finally {
+                deleteAll(base, created);
+            }
+        }
+    }
+
+    // Through the API, so the stats counters the other integration tests check stay in step with the table.
+    private static void deleteAll(String base, List<String> ids) throws Exception {
+        HttpClient client = HttpClient.newHttpClient();
+        ObjectMapper objectMapper = new ObjectMapper();
+        for (int from = 0; from < ids.size(); from += 500) {
+            List<String> chunk = ids.subList(from, Math.min(ids.size(), from + 500));
+            client.send(HttpRequest.newBuilder(URI.create(base + "/bulk/delete"))
+                            .header("Content-Type", "application/json")
+                            .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(chunk)))
+                            .build(),
+                    HttpResponse.BodyHandlers.discarding());
+        }
+    }
+
+    private static void assertReplicaGated(ConfigurableApplicationContext context) {
+        MeterRegistry registry = context.getBean(MeterRegistry.class);
+        // Reads reached the replica pool, and only through a gate with that pool's own five permits.
+        assertThat(context.getBean(ReplicaRoutingDataSource.class).replicaPools().getFirst()
+                .getHikariPoolMXBean().getTotalConnections()).isPositive();
+        assertThat(registry.get("todo.db.gate.active").tag("pool", "replica-0").gauge().value())
+                .isBetween(0d, 5d);
+        assertThat(registry.get("todo.db.gate.active").tag("pool", "primary").gauge()).isNotNull();
+    }
+
+    private LoadResult drive(String base, List<String> created) throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper();
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(10)).build();
+        Semaphore inFlight = new Semaphore(CONCURRENCY);
+        AtomicInteger failures = new AtomicInteger();
+        List<Long> latencies = Collections.synchronizedList(new ArrayList<>(REQUESTS));
+        long started = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < REQUESTS; i++) {
+                inFlight.acquire();
+                HttpRequest request = i % 5 == 0
+                        ? HttpRequest.newBuilder(URI.create(base))
+                                .header("Content-Type", "application/json")
+                                .POST(HttpRequest.BodyPublishers.ofString("{\"title\":\"load " + i + "\"}"))
+                                .build()
+                        : HttpRequest.newBuilder(URI.create(base + "/page?limit=20")).GET().build();
+                executor.submit(() -> {
+                    long begin = System.nanoTime();
+                    try {
+                        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+                        if (response.statusCode() >= 300) {
+                            failures.incrementAndGet();
+                        } else if (request.method().equals("POST")) {
+                            created.add(objectMapper.readTree(response.body()).get("id").asText());
+                        }
+                    } catch (Exception ex) {
+                        failures.incrementAndGet();
+                    } finally {
+                        latencies.add(System.nanoTime() - begin);
+                        inFlight.release();
+                    }
+                });
+            }
+        }
+        long elapsed = System.nanoTime() - started;
+        List<Long> sorted = latencies.stream().sorted().toList();
+        return new LoadResult(
+                REQUESTS * 1_000_000_000d / elapsed,
+                percentile(sorted, 0.50),
+                percentile(sorted, 0.99),
+                failures.get());
+    }
+
+    private static double percentile(List<Long> sorted, double p) {
+        return sorted.get((int) Math.min(sorted.size() - 1, Math.ceil(p * sorted.size()) - 1)) / 1_000_000d;
+    }
+
+    private record LoadResult(double requestsPerSecond, double p50Millis, double p99Millis, int failures) {
+
+        @Override
+        public String toString() {
+            return String.format("%.0f req/s, p50 %.1f ms, p99 %.1f ms, %d failures",
+                    requestsPerSecond, p50Millis, p99Millis, failures);
+        }
+    }
+}
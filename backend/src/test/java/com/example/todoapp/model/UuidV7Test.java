@@ -0,0 +1,50 @@
+package com.example.todoapp.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import org.hibernate.generator.EventType;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UuidV7Test {
+
+    @Test
+    void carriesVersionVariantAndTimestamp() {
+        long millis = 1_700_000_000_123L;
+        UUID id = new UuidV7().next(millis);
+
+        assertThat(id.version()).isEqualTo(7);
+        assertThat(id.variant()).isEqualTo(2);
+        assertThat(id.getMostSignificantBits() >>> 16).isEqualTo(millis);
+    }
+
+    @Test
+    void generatorAssignsVersion7Ids() {
+        Object id = new UuidV7Generator().generate(null, new Todo(), null, EventType.INSERT);
+
+        assertThat(id).isInstanceOfSatisfying(UUID.class, uuid -> assertThat(uuid.version()).isEqualTo(7));
+    }
+
+    @Test
+    void idsKeepIncreasingWithinAMillisecondAndWhenTheClockStepsBack() {
+        long millis = 1_800_000_000_000L;
+        UuidV7 generator = new UuidV7();
+        List<UUID> ids = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            ids.add(generator.next(millis));
+        }
+        ids.add(generator.next(millis - 1000));
+
+        // Unsigned byte order, which is how PostgreSQL compares uuid values.
+        for (int i = 1; i < ids.size(); i++) {
+            assertThat(unsignedCompare(ids.get(i - 1), ids.get(i))).isNegative();
+        }
+    }
+
+    private static int unsignedCompare(UUID a, UUID b) {
+        int high = Long.compareUnsigned(a.getMostSignificantBits(), b.getMostSignificantBits());
+        return high != 0 ? high : Long.compareUnsigned(a.getLeastSignificantBits(), b.getLeastSignificantBits());
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.todoapp.service;
+
+import com.example.todoapp.api.dto.TodoRequest;
+import com.example.todoapp.api.dto.TodoResponse;
+import com.example.todoapp.model.Todo;
+import com.example.todoapp.model.TodoStatus;
+import com.example.todoapp.repository.DueTodo;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Not @Transactional: the index only follows committed changes, and the scheduler commits one day at a time.
+@SpringBootTest
+class DueDateIndexTest {
+
+    // Far enough back that nothing else in the database is due on these days.
+    private static final LocalDate DAY = LocalDate.of(2001, 1, 2);
+
+    @Autowired
+    private TodoService service;
+
+    @Autowired
+    private DueDateIndex index;
+
+    @Autowired
+    private OverdueScheduler scheduler;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void indexFollowsCommittedChanges() {
+        TodoResponse todo = service.create(request("Due", DAY));
+        try {
+            index.refresh();
+            assertThat(ids(index.dueBy(DAY, 100))).containsExactly(todo.getId());
+            assertThat(index.dueBy(DAY.minusDays(1), 100)).isEmpty();
+
+            service.updateStatus(todo.getId(), TodoStatus.DONE);
+            index.refresh();
+            assertThat(index.dueBy(DAY, 100)).isEmpty();
+
+            service.updateStatus(todo.getId(), TodoStatus.PENDING);
+            index.refresh();
+            assertThat(index.dueOn(DAY)).containsExactly(todo.getId());
+        } finally {
+            service.deleteAll(List.of(todo.getId()));
+        }
+        index.refresh();
+        assertThat(index.dueOn(DAY)).isEmpty();
+    }
+
+    @Test
+    void overdueTodosAreReportedOncePerDay() {
+        TodoResponse open = service.create(request("Open", DAY));
+        TodoResponse done = service.create(request("Done", DAY));
+        TodoResponse later = service.create(request("Later", DAY.plusDays(1)));
+        service.updateStatus(done.getId(), TodoStatus.DONE);
+        jdbcTemplate.update("UPDATE due_date_scheduler SET fired_through = ? WHERE id = 1", DAY.minusDays(1));
+        try {
+            assertThat(scheduler.fireOverdue(DAY.plusDays(1))).isEqualTo(1);
+            assertThat(scheduler.fireOverdue(DAY.plusDays(1))).isZero();
+
+            assertThat(jdbcTemplate.queryForList(
+                    "SELECT aggregate_id FROM outbox_events WHERE event_type = 'OVERDUE'", UUID.class))
+                    .containsExactly(open.getId());
+        } finally {
+            jdbcTemplate.update("UPDATE due_date_scheduler SET owner = NULL, lease_until = NULL, fired_through = NULL");
+            service.deleteAll(List.of(open.getId(), done.getId(), later.getId()));
+            jdbcTemplate.update("DELETE FROM outbox_events WHERE aggregate_id IN (?, ?, ?)",
+                    open.getId(), done.getId(), later.getId());
+        }
+    }
+
+    @Test
+    void anotherOwnersLeaseIsRespectedUntilItExpires() {
+        TodoResponse open = service.create(request("Leased", DAY));
+        jdbcTemplate.update("UPDATE due_date_scheduler SET owner = 'other', lease_until = ?, fired_through = ?"
+                + " WHERE id = 1", Todo.now().plusSeconds(60), DAY.minusDays(1));
+        try {
+            assertThat(scheduler.fireOverdue(DAY.plusDays(1))).isZero();
+            assertThat(jdbcTemplate.queryForObject(
+                    "SELECT fired_through FROM due_date_scheduler WHERE id = 1", LocalDate.class))
+                    .isEqualTo(DAY.minusDays(1));
+
+            jdbcTemplate.update("UPDATE due_date_scheduler SET lease_until = ? WHERE id = 1",
+                    Todo.now().minusSeconds(1));
+            assertThat(scheduler.fireOverdue(DAY.plusDays(1))).isEqualTo(1);
+            assertThat(jdbcTemplate.queryForObject(
+                    "SELECT owner FROM due_date_scheduler WHERE id = 1", String.class)).isNotEqualTo("other");
+        } finally {
+            jdbcTemplate.update("UPDATE due_date_scheduler SET owner = NULL, lease_until = NULL, fired_through = NULL");
+            service.deleteAll(List.of(open.getId()));
+            jdbcTemplate.update("DELETE FROM outbox_events WHERE aggregate_id = ?", open.getId());
+        }
+    }
+
+    private static List<UUID> ids(List<DueTodo> todos) {
+        return todos.stream().map(DueTodo::id).toList();
+    }
+
+    private static TodoRequest request(String title, LocalDate dueDate) {
+        TodoRequest request = new TodoRequest();
+        request.setTitle(title);
+        request.setDueDate(dueDate);
+        return request;
+    }
+}
@@ -0,0 +1,136 @@
+package com.example.todoapp.service;
+
+import com.example.todoapp.api.dto.TodoRequest;
+import com.example.todoapp.api.dto.TodoResponse;
+import com.example.todoapp.model.OutboxEvent;
+import com.example.todoapp.model.TodoStatus;
+import com.example.todoapp.repository.OutboxEventRepository;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Not @Transactional: the dispatcher only sees committed outbox rows.
+@SpringBootTest
+class OutboxDispatcherTest {
+
+    @Autowired
+    private TodoService service;
+
+    @Autowired
+    private OutboxDispatcher dispatcher;
+
+    @Autowired
+    private OutboxEventRepository outbox;
+
+    @Autowired
+    private RecordingHandler handler;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void reset() {
+        outbox.deleteAll();
+        handler.events.clear();
+        handler.failuresLeft.set(0);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        outbox.deleteAll();
+    }
+
+    @Test
+    void changesAreWrittenWithTheirTransactionAndDeliveredAfterwards() {
+        TodoResponse todo = service.create(request("Outbox"));
+        service.updateStatus(todo.getId(), TodoStatus.DONE);
+        service.delete(todo.getId());
+
+        assertThat(outbox.findAll()).extracting(OutboxEvent::getEventType)
+                .containsExactlyInAnyOrder("CREATED", "STATUS_CHANGED", "DELETED");
+        assertThat(dispatcher.dispatch()).isEqualTo(3);
+        assertThat(handler.events).extracting(OutboxEvent::getAggregateId).containsOnly(todo.getId());
+        assertThat(outbox.count()).isZero();
+    }
+
+    @Test
+    void backlogGaugesReportUndeliveredEvents() {
+        assertThat(outbox.countPending()).isZero();
+        assertThat(dispatcher.oldestPendingAge()).isZero();
+
+        TodoResponse todo = service.create(request("Backlog"));
+        service.delete(todo.getId());
+
+        assertThat(outbox.countPending()).isEqualTo(2);
+        assertThat(outbox.oldestPendingCreatedAt()).isNotNull();
+        dispatcher.dispatch();
+        assertThat(outbox.countPending()).isZero();
+        assertThat(outbox.oldestPendingCreatedAt()).isNull();
+    }
+
+    @Test
+    void rolledBackChangesLeaveNoOutboxRows() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            service.create(request("Rolled back"));
+            status.setRollbackOnly();
+        });
+
+        assertThat(outbox.count()).isZero();
+    }
+
+    @Test
+    void failedDeliveriesAreRetriedWithBackoff() {
+        TodoResponse todo = service.create(request("Flaky"));
+        handler.failuresLeft.set(1);
+
+        assertThat(dispatcher.dispatch()).isEqualTo(1);
+        OutboxEvent pending = outbox.findAll().getFirst();
+        assertThat(pending.getAttempts()).isEqualTo(1);
+        assertThat(pending.getLastError()).contains("boom");
+        assertThat(pending.getNextAttemptAt()).isAfter(Instant.now());
+        assertThat(dispatcher.dispatch()).isZero();
+
+        service.delete(todo.getId());
+    }
+
+    private static TodoRequest request(String title) {
+        TodoRequest request = new TodoRequest();
+        request.setTitle(title);
+        return request;
+    }
+
+    @TestConfiguration
+    static class Handlers {
+
+        @Bean
+        RecordingHandler recordingHandler() {
+            return new RecordingHandler();
+        }
+    }
+
+    static class RecordingHandler implements OutboxEventHandler {
+
+        final List<OutboxEvent> events = new CopyOnWriteArrayList<>();
+        final AtomicInteger failuresLeft = new AtomicInteger();
+
+        @Override
+        public void handle(OutboxEvent event) {
+            if (failuresLeft.getAndDecrement() > 0) {
+                throw new IllegalStateException("boom");
+            }
+            events.add(event);
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.todoapp.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SingleFlightTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final SingleFlight<String, String> flights = new SingleFlight<>("test", registry);
+
+    @Test
+    void concurrentCallersShareOneLoad() throws Exception {
+        int callers = 16;
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        List<Future<String>> results = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(callers)) {
+            for (int i = 0; i < callers; i++) {
+                results.add(executor.submit(() -> flights.get("key", () -> {
+                    loads.incrementAndGet();
+                    await(release);
+                    return "value";
+                })));
+            }
+            waitForCallers(callers);
+            release.countDown();
+            for (Future<String> result : results) {
+                assertThat(result.get()).isEqualTo("value");
+            }
+        }
+
+        assertThat(loads).hasValue(1);
+        assertThat(registry.get("todo.singleflight.calls").tag("result", "shared").counter().count())
+                .isEqualTo(callers - 1);
+        assertThat(registry.get("todo.singleflight.fan.in").summary().max()).isEqualTo(callers);
+    }
+
+    @Test
+    void failuresReachEveryWaiterAndAreNotKept() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        try (ExecutorService executor = Executors.newFixedThreadPool(2)) {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < 2; i++) {
+                results.add(executor.submit(() -> flights.get("key", () -> {
+                    await(release);
+                    throw new IllegalStateException("boom");
+                })));
+            }
+            waitForCallers(2);
+            release.countDown();
+            for (Future<String> result : results) {
+                assertThatThrownBy(result::get).hasCauseInstanceOf(IllegalStateException.class);
+            }
+        }
+
+        assertThat(flights.get("key", () -> "retried")).isEqualTo("retried");
+    }
+
+    @Test
+    void forgottenLoadsAreNotJoined() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        try (ExecutorService executor = Executors.newSingleThreadExecutor()) {
+            Future<String> stale = executor.submit(() -> flights.get("key", () -> {
+                await(release);
+                return "old";
+            }));
+            waitForCallers(1);
+            flights.forget("key");
+
+            assertThat(flights.get("key", () -> "new")).isEqualTo("new");
+            release.countDown();
+            assertThat(stale.get()).isEqualTo("old");
+        }
+    }
+
+    private void waitForCallers(int callers) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (calls() < callers && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(calls()).isEqualTo(callers);
+    }
+
+    private double calls() {
+        return registry.get("todo.singleflight.calls").counters().stream().mapToDouble(c -> c.count()).sum();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
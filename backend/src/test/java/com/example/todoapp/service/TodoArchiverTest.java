@@ -0,0 +1,55 @@
+package com.example.todoapp.service;
+
+import com.example.todoapp.api.dto.TodoRequest;
+import com.example.todoapp.api.dto.TodoResponse;
+import com.example.todoapp.model.Todo;
+import com.example.todoapp.model.TodoStatus;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Not @Transactional: the archiver commits each batch in its own transaction.
+@SpringBootTest
+class TodoArchiverTest {
+
+    @Autowired
+    private TodoService service;
+
+    @Autowired
+    private TodoArchiver archiver;
+
+    @Test
+    void archivedTodosLeaveDefaultListsUntilReopened() {
+        TodoResponse done = service.create(request("Done"));
+        TodoResponse open = service.create(request("Open"));
+        service.updateStatus(done.getId(), TodoStatus.DONE);
+        try {
+            assertThat(archiver.archive(Todo.now().plusSeconds(1))).isPositive();
+
+            assertThat(ids(service.list(null, null, null, false)))
+                    .contains(open.getId())
+                    .doesNotContain(done.getId());
+            assertThat(ids(service.list(TodoStatus.DONE, null, null, true))).contains(done.getId());
+            assertThat(service.get(done.getId()).getStatus()).isEqualTo(TodoStatus.DONE);
+
+            service.updateStatus(done.getId(), TodoStatus.PENDING);
+            assertThat(ids(service.list(null, null, null, false))).contains(done.getId(), open.getId());
+        } finally {
+            service.deleteAll(List.of(done.getId(), open.getId()));
+        }
+    }
+
+    private static List<UUID> ids(List<TodoResponse> todos) {
+        return todos.stream().map(TodoResponse::getId).toList();
+    }
+
+    private static TodoRequest request(String title) {
+        TodoRequest request = new TodoRequest();
+        request.setTitle(title);
+        return request;
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.todoapp.service;
+
+import com.example.todoapp.api.dto.TodoResponse;
+import com.example.todoapp.model.TodoStatus;
+import com.example.todoapp.repository.TodoFilter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TodoCacheTest {
+
+    private final TodoCache cache = new TodoCache(
+            true, 100, Duration.ofMinutes(1), 100, Duration.ofMinutes(1), new SimpleMeterRegistry());
+
+    @Test
+    void listLoadedAcrossACommitIsNotKept() throws Exception {
+        TodoFilter filter = new TodoFilter(TodoStatus.DONE, null, null);
+        UUID id = UUID.randomUUID();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch committed = new CountDownLatch(1);
+        try (ExecutorService executor = Executors.newSingleThreadExecutor()) {
+            // The load reads before the write commits and only returns after the commit's eviction has run.
+            Future<List<TodoResponse>> stale = executor.submit(() -> cache.getList(filter, () -> {
+                loading.countDown();
+                await(committed);
+                return List.of();
+            }));
+            await(loading);
+            cache.invalidate(id, todo(id, TodoStatus.DONE));
+            committed.countDown();
+            assertThat(stale.get(5, TimeUnit.SECONDS)).isEmpty();
+        }
+
+        List<TodoResponse> fresh = cache.getList(filter, () -> List.of(todo(id, TodoStatus.DONE)));
+
+        assertThat(fresh).extracting(TodoResponse::getId).containsExactly(id);
+    }
+
+    @Test
+    void listLoadedWithoutAWriteIsKept() {
+        TodoFilter filter = new TodoFilter(TodoStatus.DONE, null, null);
+        cache.getList(filter, List::of);
+
+        assertThat(cache.getList(filter, () -> List.of(todo(UUID.randomUUID(), TodoStatus.DONE)))).isEmpty();
+    }
+
+    private static TodoResponse todo(UUID id, TodoStatus status) {
+        TodoResponse todo = new TodoResponse();
+        todo.setId(id);
+        todo.setStatus(status);
+        return todo;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.todoapp.service;
+
+import com.example.todoapp.api.dto.TodoChangesResponse;
+import com.example.todoapp.api.dto.TodoRequest;
+import com.example.todoapp.api.dto.TodoResponse;
+import com.example.todoapp.exception.GoneException;
+import com.example.todoapp.model.Todo;
+import com.example.todoapp.model.TodoStatus;
+import com.example.todoapp.repository.TodoChangeLogRepository;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Not @Transactional: change sequences are taken as the writing transaction commits.
+@SpringBootTest
+class TodoChangeLogTest {
+
+    @Autowired
+    private TodoService service;
+
+    @Autowired
+    private TodoChangeLog changeLog;
+
+    @Autowired
+    private TodoChangeLogRepository repository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void deltasCarryTheLatestStateOfChangedTodosAndTombstonesOfDeletedOnes() {
+        String watermark = tail();
+        TodoResponse kept = service.create(request("Kept"));
+        TodoResponse removed = service.create(request("Removed"));
+        service.updateStatus(kept.getId(), TodoStatus.DONE);
+        service.delete(removed.getId());
+        try {
+            TodoChangesResponse changes = changeLog.since(watermark, 10);
+
+            assertThat(changes.getUpserted()).extracting(TodoResponse::getId).containsExactly(kept.getId());
+            assertThat(changes.getUpserted().getFirst().getStatus()).isEqualTo(TodoStatus.DONE);
+            assertThat(changes.getDeleted()).containsExactly(removed.getId());
+            assertThat(changes.isHasMore()).isFalse();
+            assertThat(changeLog.since(changes.getWatermark(), 10).getUpserted()).isEmpty();
+
+            TodoChangesResponse first = changeLog.since(watermark, 1);
+            assertThat(first.isHasMore()).isTrue();
+            TodoChangesResponse second = changeLog.since(first.getWatermark(), 1);
+            assertThat(second.getUpserted().size() + second.getDeleted().size()).isEqualTo(1);
+            assertThat(second.isHasMore()).isFalse();
+        } finally {
+            service.delete(kept.getId());
+        }
+    }
+
+    @Test
+    void watermarksOlderThanPurgedTombstonesMustResync() {
+        String watermark = tail();
+        TodoResponse removed = service.create(request("Purged"));
+        service.delete(removed.getId());
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(
+                status -> repository.purgeTombstones(Todo.now().plusSeconds(1)));
+
+        assertThatThrownBy(() -> changeLog.since(watermark, 10)).isInstanceOf(GoneException.class);
+        assertThat(changeLog.since(null, 10)).isNotNull();
+    }
+
+    private String tail() {
+        TodoChangesResponse page = changeLog.since(null, TodoService.MAX_PAGE_SIZE);
+        while (page.isHasMore()) {
+            page = changeLog.since(page.getWatermark(), TodoService.MAX_PAGE_SIZE);
+        }
+        return page.getWatermark();
+    }
+
+    private static TodoRequest request(String title) {
+        TodoRequest request = new TodoRequest();
+        request.setTitle(title + " " + UUID.randomUUID());
+        return request;
+    }
+}
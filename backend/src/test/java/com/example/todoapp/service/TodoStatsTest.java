@@ -0,0 +1,118 @@
+package com.example.todoapp.service;
+
+import com.example.todoapp.api.dto.BulkTodoUpdate;
+import com.example.todoapp.api.dto.TodoRequest;
+import com.example.todoapp.api.dto.TodoResponse;
+import com.example.todoapp.api.dto.TodoStatsCheckResponse;
+import com.example.todoapp.api.dto.TodoStatsResponse;
+import com.example.todoapp.model.TodoStatus;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Not @Transactional: counters are written as the mutating transaction commits.
+@SpringBootTest
+@AutoConfigureMockMvc
+class TodoStatsTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2030, 6, 15);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TodoService service;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void countersFollowEveryKindOfWrite() throws Exception {
+        TodoStatsResponse before = stats();
+        TodoResponse overdue = service.create(request("Overdue", TodoStatus.PENDING, TODAY.minusDays(1)));
+        TodoResponse soon = service.create(request("Soon", TodoStatus.IN_PROGRESS, TODAY.plusDays(3)));
+        TodoResponse done = service.create(request("Done", TodoStatus.DONE, TODAY.minusDays(2)));
+        try {
+            TodoStatsResponse created = stats();
+            assertThat(created.getTotal()).isEqualTo(before.getTotal() + 3);
+            assertThat(delta(before, created, TodoStatus.PENDING)).isEqualTo(1);
+            assertThat(delta(before, created, TodoStatus.DONE)).isEqualTo(1);
+            assertThat(created.getOverdue()).isEqualTo(before.getOverdue() + 1);
+            assertThat(created.getDueThisWeek()).isEqualTo(before.getDueThisWeek() + 1);
+
+            service.updateStatus(overdue.getId(), TodoStatus.DONE);
+            BulkTodoUpdate later = new BulkTodoUpdate();
+            later.setId(soon.getId());
+            later.setTitle("Later");
+            later.setStatus(TodoStatus.IN_PROGRESS);
+            later.setDueDate(TODAY.plusDays(30));
+            service.updateAll(List.of(later));
+            service.deleteAll(List.of(done.getId()));
+
+            TodoStatsResponse after = stats();
+            assertThat(after.getTotal()).isEqualTo(before.getTotal() + 2);
+            assertThat(delta(before, after, TodoStatus.PENDING)).isZero();
+            assertThat(delta(before, after, TodoStatus.IN_PROGRESS)).isEqualTo(1);
+            assertThat(delta(before, after, TodoStatus.DONE)).isEqualTo(1);
+            assertThat(after.getOverdue()).isEqualTo(before.getOverdue());
+            assertThat(after.getDueThisWeek()).isEqualTo(before.getDueThisWeek());
+            assertThat(check().isConsistent()).isTrue();
+        } finally {
+            service.deleteAll(List.of(overdue.getId(), soon.getId(), done.getId()));
+        }
+    }
+
+    @Test
+    void rolledBackWritesLeaveCountersUntouched() throws Exception {
+        TodoStatsResponse before = stats();
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            UUID id = service.create(request("Rolled back", TodoStatus.PENDING, TODAY)).getId();
+            service.updateStatus(id, TodoStatus.DONE);
+            status.setRollbackOnly();
+        });
+
+        assertThat(stats().getTotal()).isEqualTo(before.getTotal());
+        assertThat(check().isConsistent()).isTrue();
+    }
+
+    private TodoStatsResponse stats() throws Exception {
+        String json = mockMvc.perform(get("/api/todos/stats").param("today", TODAY.toString()))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readValue(json, TodoStatsResponse.class);
+    }
+
+    private TodoStatsCheckResponse check() throws Exception {
+        String json = mockMvc.perform(get("/api/todos/stats/check"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readValue(json, TodoStatsCheckResponse.class);
+    }
+
+    private static long delta(TodoStatsResponse before, TodoStatsResponse after, TodoStatus status) {
+        return after.getByStatus().get(status) - before.getByStatus().get(status);
+    }
+
+    private static TodoRequest request(String title, TodoStatus status, LocalDate dueDate) {
+        TodoRequest request = new TodoRequest();
+        request.setTitle(title);
+        request.setStatus(status);
+        request.setDueDate(dueDate);
+        return request;
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.todoapp.service;
+
+import com.example.todoapp.repository.TodoRepository;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {"todo.warmup.iterations=5", "todo.warmup.connections=4"})
+class TodoWarmupTest {
+
+    @Autowired
+    private TodoWarmup warmup;
+
+    @Autowired
+    private TodoRepository repository;
+
+    @Autowired
+    private HikariDataSource dataSource;
+
+    @Test
+    void warmupFillsThePoolWithoutWriting() {
+        long todos = repository.count();
+
+        assertThat(warmup.warmUp()).isEqualTo(5);
+
+        assertThat(dataSource.getHikariPoolMXBean().getTotalConnections()).isGreaterThanOrEqualTo(4);
+        assertThat(repository.count()).isEqualTo(todos);
+    }
+}
@@ -1,4 +1,4 @@
-import { useMemo, useState } from 'react';
+import { useEffect, useMemo, useState } from 'react';
 import {
   QueryClient,
   QueryClientProvider,
@@ -8,11 +8,14 @@ import {
 } from '@tanstack/react-query';
 import {
   Todo,
+  TodoChange,
   TodoPayload,
   TodoStatus,
   createTodo,
   deleteTodo,
+  getTodo,
   listTodos,
+  subscribeToChanges,
   updateStatus,
   updateTodo,
 } from './api/todos';
@@ -21,6 +24,28 @@ const client = new QueryClient();
 
 const statusOptions: TodoStatus[] = ['PENDING', 'IN_PROGRESS', 'DONE'];
 
+// Patches every cached list with a single change instead of refetching it.
+function applyChange(queryClient: QueryClient, change: TodoChange) {
+  queryClient.getQueriesData<Todo[]>({ queryKey: ['todos'] }).forEach(([key, list]) => {
+    if (!list) {
+      return;
+    }
+    const [, filter, query] = key as [string, TodoStatus | 'ALL', string];
+    if (query) {
+      // Search results are ranked on the server.
+      queryClient.invalidateQueries({ queryKey: key, exact: true });
+      return;
+    }
+    const rest = list.filter((t) => t.id !== change.id);
+    const todo = change.todo;
+    const next =
+      todo && (filter === 'ALL' || todo.status === filter)
+        ? [...rest, todo].sort((a, b) => Date.parse(b.createdAt) - Date.parse(a.createdAt))
+        : rest;
+    queryClient.setQueryData(key, next);
+  });
+}
+
 function TodoForm({ onSubmit, initial }: { onSubmit: (payload: TodoPayload) => void; initial?: Todo }) {
   const [title, setTitle] = useState(initial?.title ?? '');
   const [description, setDescription] = useState(initial?.description ?? '');
@@ -89,30 +114,58 @@ function TodoForm({ onSubmit, initial }: { onSubmit: (payload: TodoPayload) => v
 function TodoList() {
   const queryClient = useQueryClient();
   const [filter, setFilter] = useState<TodoStatus | 'ALL'>('ALL');
+  const [search, setSearch] = useState('');
+  const [query, setQuery] = useState('');
+  const [showArchived, setShowArchived] = useState(false);
+
+  useEffect(() => {
+    const timer = setTimeout(() => setQuery(search.trim()), 250);
+    return () => clearTimeout(timer);
+  }, [search]);
+
+  useEffect(
+    () =>
+      subscribeToChanges(
+        (change) => applyChange(queryClient, change),
+        () => queryClient.invalidateQueries({ queryKey: ['todos'] }),
+      ),
+    [queryClient],
+  );
 
   const { data, isLoading } = useQuery({
-    queryKey: ['todos', filter],
-    queryFn: () => listTodos(filter === 'ALL' ? undefined : { status: filter }),
+    queryKey: ['todos', filter, query, showArchived],
+    // The change feed patches lists as changes happen, but only sees writes served by the backend instance it is
+    // connected to, so lists are still refetched now and then; an unchanged list comes back as a 304.
+    staleTime: 30_000,
+    refetchInterval: 30_000,
+    queryFn: () =>
+      listTodos({
+        status: filter === 'ALL' ? undefined : filter,
+        q: query || undefined,
+        includeArchived: showArchived || undefined,
+        view: 'summary',
+      }),
   });
 
+  // Apply our own writes right away; the matching feed event is then a no-op.
   const createMutation = useMutation({
     mutationFn: createTodo,
-    onSuccess: () => queryClient.invalidateQueries({ queryKey: ['todos'] }),
+    onSuccess: (todo) => applyChange(queryClient, { type: 'CREATED', id: todo.id, todo }),
   });
 
   const updateMutation = useMutation({
     mutationFn: ({ id, payload }: { id: string; payload: TodoPayload }) => updateTodo(id, payload),
-    onSuccess: () => queryClient.invalidateQueries({ queryKey: ['todos'] }),
+    onSuccess: (todo) => applyChange(queryClient, { type: 'UPDATED', id: todo.id, todo }),
   });
 
   const statusMutation = useMutation({
     mutationFn: ({ id, status }: { id: string; status: TodoStatus }) => updateStatus(id, status),
-    onSuccess: () => queryClient.invalidateQueries({ queryKey: ['todos'] }),
+    onSuccess: (todo) => applyChange(queryClient, { type: 'STATUS_CHANGED', id: todo.id, todo }),
   });
 
   const deleteMutation = useMutation({
     mutationFn: deleteTodo,
-    onSuccess: () => queryClient.invalidateQueries({ queryKey: ['todos'] }),
+    onSuccess: (_, id) => applyChange(queryClient, { type: 'DELETED', id }),
   });
 
   const [editing, setEditing] = useState<Todo | null>(null);
@@ -123,6 +176,11 @@ function TodoList() {
     createMutation.mutate(payload);
   };
 
+  // List rows may carry a shortened description, so edit the full todo.
+  const onEdit = async (todo: Todo) => {
+    setEditing(todo.descriptionTruncated ? await getTodo(todo.id) : todo);
+  };
+
   const onUpdate = (payload: TodoPayload) => {
     if (editing) {
       updateMutation.mutate({ id: editing.id, payload });
@@ -143,7 +201,7 @@ function TodoList() {
             Mark {s.replace('_', ' ').toLowerCase()}
           </button>
         ))}
-      <button className="btn secondary" onClick={() => setEditing(todo)}>
+      <button className="btn secondary" onClick={() => onEdit(todo)}>
         Edit
       </button>
       <button className="btn secondary" onClick={() => deleteMutation.mutate(todo.id)}>
@@ -183,9 +241,15 @@ function TodoList() {
         <div className="header">
           <div>
             <div className="title">Your todos</div>
-            <div className="muted">Filter by status to focus</div>
+            <div className="muted">Search or filter by status to focus</div>
           </div>
           <div className="filters">
+            <input
+              type="search"
+              value={search}
+              onChange={(e) => setSearch(e.target.value)}
+              placeholder="Search todos"
+            />
             <select value={filter} onChange={(e) => setFilter(e.target.value as TodoStatus | 'ALL')}>
               <option value="ALL">All</option>
               {statusOptions.map((s) => (
@@ -194,6 +258,14 @@ function TodoList() {
                 </option>
               ))}
             </select>
+            <label className="muted">
+              <input
+                type="checkbox"
+                checked={showArchived}
+                onChange={(e) => setShowArchived(e.target.checked)}
+              />{' '}
+              Show archived
+            </label>
           </div>
         </div>
 
@@ -205,7 +277,12 @@ function TodoList() {
               <div className="todo-top">
                 <div>
                   <div style={{ fontWeight: 700 }}>{todo.title}</div>
-                  {todo.description && <div className="muted">{todo.description}</div>}
+                  {todo.description && (
+                    <div className="muted">
+                      {todo.description}
+                      {todo.descriptionTruncated ? '…' : ''}
+                    </div>
+                  )}
                 </div>
                 <div className={`status ${todo.status}`}>{todo.status.replace('_', ' ')}</div>
               </div>
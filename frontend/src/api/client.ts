@@ -5,4 +5,6 @@ const baseURL = import.meta.env.VITE_API_URL || 'http://localhost:8080';
 export const api = axios.create({
   baseURL: `${baseURL}/api`,
   headers: { 'Content-Type': 'application/json' },
+  // Sends the cookie that keeps our reads on the primary database right after a write.
+  withCredentials: true,
 });
@@ -10,6 +10,16 @@ export interface Todo {
   dueDate?: string;
   createdAt: string;
   updatedAt: string;
+  // Set on summary rows whose description was cut short by the server.
+  descriptionTruncated?: boolean;
+}
+
+export type TodoChangeType = 'CREATED' | 'UPDATED' | 'STATUS_CHANGED' | 'DELETED' | 'OVERDUE';
+
+export interface TodoChange {
+  type: TodoChangeType;
+  id: string;
+  todo?: Todo | null;
 }
 
 export interface TodoPayload {
@@ -23,11 +33,23 @@ export async function listTodos(params?: {
   status?: TodoStatus;
   fromDate?: string;
   toDate?: string;
+  // Full-text search, ranked by relevance; limit/offset page through the matches.
+  q?: string;
+  // DONE todos untouched for a while are archived and left out unless this is set.
+  includeArchived?: boolean;
+  limit?: number;
+  offset?: number;
+  view?: 'full' | 'summary';
 }): Promise<Todo[]> {
   const { data } = await api.get('/todos', { params });
   return data;
 }
 
+export async function getTodo(id: string): Promise<Todo> {
+  const { data } = await api.get(`/todos/${id}`);
+  return data;
+}
+
 export async function createTodo(payload: TodoPayload): Promise<Todo> {
   const { data } = await api.post('/todos', payload);
   return data;
@@ -46,3 +68,12 @@ export async function updateStatus(id: string, status: TodoStatus): Promise<Todo
 export async function deleteTodo(id: string): Promise<void> {
   await api.delete(`/todos/${id}`);
 }
+
+// EventSource reconnects by itself and sends Last-Event-ID, so the server replays whatever was missed or
+// answers with a reset when it no longer can.
+export function subscribeToChanges(onChange: (change: TodoChange) => void, onReset: () => void): () => void {
+  const source = new EventSource(`${api.defaults.baseURL}/todos/events`);
+  source.addEventListener('todo', (event) => onChange(JSON.parse((event as MessageEvent).data)));
+  source.addEventListener('reset', onReset);
+  return () => source.close();
+}